@@ -9,26 +9,65 @@ import chess.engine.player.WhitePlayer;
 import java.util.*;
 
 public class Board {
-
-    private List<Tile> gameBoard;
+    private final Tile[] gameBoard;
     private Collection<Piece> whitePieces;
     private Collection<Piece> blackPieces;
 
+    private final long[] pieceBitboards;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final Pawn enPassantPawn;
+    private final int castlingRights;
+    private final long zobristKey;
+    private final int middlegameScore;
+    private final int endgameScore;
+    private final int gamePhase;
+    private final int halfmoveClock;
+    private final int fullmoveNumber;
+    private final Board previousBoard; // board before the last move, null if it was a capture or pawn move
+    private volatile long[] attackMaps; // computed on first use, indexed by alliance ordinal
+
     private WhitePlayer whitePlayer;
     private BlackPlayer blackPlayer;
     private Player currentPlayer;
 
     private Board(Builder builder) {
+        this.pieceBitboards = createPieceBitboards(builder);
+        this.whiteOccupancy = calculateOccupancy(this.pieceBitboards, Alliance.WHITE);
+        this.blackOccupancy = calculateOccupancy(this.pieceBitboards, Alliance.BLACK);
         this.gameBoard = createGameBoard(builder);
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
-
-        Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
-
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
+        this.whitePieces = calculateActivePieces(this.gameBoard, this.whiteOccupancy);
+        this.blackPieces = calculateActivePieces(this.gameBoard, this.blackOccupancy);
+        this.enPassantPawn = builder.enPassantPawn;
+        this.castlingRights = calculateCastlingRights();
+        this.halfmoveClock = builder.halfmoveClock;
+        this.fullmoveNumber = builder.fullmoveNumber;
+        this.previousBoard = builder.previousBoard;
+
+        this.whitePlayer = new WhitePlayer(this);
+        this.blackPlayer = new BlackPlayer(this);
         this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
+        this.zobristKey = builder.hasZobristKey ? builder.zobristKey : Zobrist.calculateKey(this);
+
+        if (builder.hasPieceSquareScores) {
+            this.middlegameScore = builder.middlegameScore;
+            this.endgameScore = builder.endgameScore;
+            this.gamePhase = builder.gamePhase;
+        } else {
+            int middlegameScore = 0;
+            int endgameScore = 0;
+            int gamePhase = 0;
+            List<Piece> allPieces = new ArrayList<>(this.whitePieces);
+            allPieces.addAll(this.blackPieces);
+            for (Piece piece : allPieces) {
+                middlegameScore += PieceSquareTables.getMiddlegameValue(piece, piece.getPiecePosition());
+                endgameScore += PieceSquareTables.getEndgameValue(piece, piece.getPiecePosition());
+                gamePhase += PieceSquareTables.getPhaseWeight(piece);
+            }
+            this.middlegameScore = middlegameScore;
+            this.endgameScore = endgameScore;
+            this.gamePhase = gamePhase;
+        }
     }
 
     public Collection<Piece> getBlackPieces() {
@@ -38,40 +77,260 @@ public class Board {
         return this.whitePieces;
     }
 
+    /**
+     * @param pieceType - type of pieces
+     * @param alliance - colour of pieces
+     * @return bitboard where bit i is set if tile i holds such a piece
+     */
+    public long getPieceBitboard(Piece.PieceType pieceType, Alliance alliance) {
+        return this.pieceBitboards[BoardUtils.pieceBitboardIndex(pieceType, alliance)];
+    }
+
+    /**
+     * @param alliance - colour of pieces
+     * @return bitboard of all tiles occupied by pieces of given alliance
+     */
+    public long getOccupancy(Alliance alliance) {
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+
+    /**
+     * @return bitboard of all occupied tiles
+     */
+    public long getOccupancy() {
+        return this.whiteOccupancy | this.blackOccupancy;
+    }
+
+    /**
+     * @return pawn which has just made a two-tile jump, or null
+     */
+    public Pawn getEnPassantPawn() {
+        return this.enPassantPawn;
+    }
+
+    /**
+     * @return set of BoardUtils castle flags
+     */
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    /**
+     * @return number of half moves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return this.halfmoveClock;
+    }
+
+    /**
+     * @return number of the full move, starting at 1 and incremented after each black move
+     */
+    public int getFullmoveNumber() {
+        return this.fullmoveNumber;
+    }
+
+    /**
+     * Counts the earlier boards since the last capture or pawn move which hold this position, following the links
+     * to the previous boards. Only boards with the same player to move are compared, so the check costs half
+     * the plies since that move
+     * @return number of earlier occurrences of the position
+     */
+    public int getRepetitionCount() {
+        int count = 0;
+        Board board = this.previousBoard == null ? null : this.previousBoard.previousBoard;
+        while (board != null && board.previousBoard != null) {
+            board = board.previousBoard.previousBoard;
+            if (board != null && board.zobristKey == this.zobristKey)
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return true if the position occurs for the third time
+     */
+    public boolean isThreefoldRepetition() {
+        return getRepetitionCount() >= 2;
+    }
+
+    /**
+     * @return true if fifty moves of each player passed without a capture or pawn move, and the last one
+     *         does not checkmate
+     */
+    public boolean isFiftyMoveRule() {
+        return this.halfmoveClock >= BoardUtils.FIFTY_MOVE_RULE_PLIES && !this.currentPlayer.isInCheckMate();
+    }
+
+    /**
+     * @return 64-bit Zobrist key of the position
+     */
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    /**
+     * @return material and piece-square sum of the middlegame tables, from the point of view of white
+     */
+    public int getMiddlegameScore() {
+        return this.middlegameScore;
+    }
+
+    /**
+     * @return material and piece-square sum of the endgame tables, from the point of view of white
+     */
+    public int getEndgameScore() {
+        return this.endgameScore;
+    }
+
+    /**
+     * @return game phase, see PieceSquareTables
+     */
+    public int getGamePhase() {
+        return this.gamePhase;
+    }
+
+    /**
+     * @param tileCoordinate - tile on the board
+     * @param attacker - colour of attacking pieces
+     * @return true if any piece of the attacker attacks the tile
+     */
+    public boolean isSquareAttacked(int tileCoordinate, Alliance attacker) {
+        return (getAttackedTiles(attacker) & 1L << tileCoordinate) != 0;
+    }
+
+    /**
+     * @param tileCoordinate - tile on the board
+     * @param attacker - colour of attacking pieces
+     * @return number of pieces of the attacker attacking the tile
+     */
+    public int getAttackerCount(int tileCoordinate, Alliance attacker) {
+        return Long.bitCount(getAttackers(tileCoordinate, attacker, getOccupancy()));
+    }
+
+    /**
+     * The attack map of both sides is calculated on the first call and remembered
+     * @param attacker - colour of attacking pieces
+     * @return bitboard of all tiles attacked by the pieces of the attacker
+     */
+    public long getAttackedTiles(Alliance attacker) {
+        long[] attackMaps = this.attackMaps;
+        if (attackMaps == null) {
+            attackMaps = new long[] {calculateAttackedTiles(Alliance.WHITE), calculateAttackedTiles(Alliance.BLACK)};
+            this.attackMaps = attackMaps;
+        }
+        return attackMaps[attacker.ordinal()];
+    }
+
+    /**
+     * @param tileCoordinate - tile on the board
+     * @param attacker - colour of attacking pieces
+     * @param occupancy - occupied tiles which block sliding pieces, may differ from the board for what-if questions
+     * @return bitboard of the pieces of the attacker attacking the tile
+     */
+    public long getAttackers(int tileCoordinate, Alliance attacker, long occupancy) {
+        Alliance defender = attacker.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        long queens = getPieceBitboard(Piece.PieceType.QUEEN, attacker);
+        return (BoardUtils.PAWN_ATTACKS[defender.ordinal()][tileCoordinate] & getPieceBitboard(Piece.PieceType.PAWN, attacker)) |
+               (BoardUtils.KNIGHT_ATTACKS[tileCoordinate] & getPieceBitboard(Piece.PieceType.KNIGHT, attacker)) |
+               (BoardUtils.KING_ATTACKS[tileCoordinate] & getPieceBitboard(Piece.PieceType.KING, attacker)) |
+               (MagicBitboards.getRookAttacks(tileCoordinate, occupancy) & (getPieceBitboard(Piece.PieceType.ROOK, attacker) | queens)) |
+               (MagicBitboards.getBishopAttacks(tileCoordinate, occupancy) & (getPieceBitboard(Piece.PieceType.BISHOP, attacker) | queens));
+    }
+
+    private long calculateAttackedTiles(Alliance attacker) {
+        long occupancy = getOccupancy();
+        long attacks = 0L;
+
+        for (long pawns = getPieceBitboard(Piece.PieceType.PAWN, attacker); pawns != 0; pawns &= pawns - 1)
+            attacks |= BoardUtils.PAWN_ATTACKS[attacker.ordinal()][Long.numberOfTrailingZeros(pawns)];
+        for (long knights = getPieceBitboard(Piece.PieceType.KNIGHT, attacker); knights != 0; knights &= knights - 1)
+            attacks |= BoardUtils.KNIGHT_ATTACKS[Long.numberOfTrailingZeros(knights)];
+        for (long bishops = getPieceBitboard(Piece.PieceType.BISHOP, attacker) | getPieceBitboard(Piece.PieceType.QUEEN, attacker); bishops != 0; bishops &= bishops - 1)
+            attacks |= MagicBitboards.getBishopAttacks(Long.numberOfTrailingZeros(bishops), occupancy);
+        for (long rooks = getPieceBitboard(Piece.PieceType.ROOK, attacker) | getPieceBitboard(Piece.PieceType.QUEEN, attacker); rooks != 0; rooks &= rooks - 1)
+            attacks |= MagicBitboards.getRookAttacks(Long.numberOfTrailingZeros(rooks), occupancy);
+        for (long kings = getPieceBitboard(Piece.PieceType.KING, attacker); kings != 0; kings &= kings - 1)
+            attacks |= BoardUtils.KING_ATTACKS[Long.numberOfTrailingZeros(kings)];
+
+        return attacks;
+    }
+
+    /**
+     * Castling rights are derived from kings and rooks which still stand on their initial tiles
+     * and have not moved yet
+     * @return set of BoardUtils castle flags
+     */
+    private int calculateCastlingRights() {
+        int castlingRights = 0;
+        if (isUnmovedPiece(60, Piece.PieceType.KING, Alliance.WHITE)) {
+            if (isUnmovedPiece(63, Piece.PieceType.ROOK, Alliance.WHITE))
+                castlingRights |= BoardUtils.WHITE_KING_SIDE_CASTLE;
+            if (isUnmovedPiece(56, Piece.PieceType.ROOK, Alliance.WHITE))
+                castlingRights |= BoardUtils.WHITE_QUEEN_SIDE_CASTLE;
+        }
+        if (isUnmovedPiece(4, Piece.PieceType.KING, Alliance.BLACK)) {
+            if (isUnmovedPiece(7, Piece.PieceType.ROOK, Alliance.BLACK))
+                castlingRights |= BoardUtils.BLACK_KING_SIDE_CASTLE;
+            if (isUnmovedPiece(0, Piece.PieceType.ROOK, Alliance.BLACK))
+                castlingRights |= BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+        }
+        return castlingRights;
+    }
+
+    private boolean isUnmovedPiece(int tileCoordinate, Piece.PieceType pieceType, Alliance alliance) {
+        Piece piece = getTile(tileCoordinate).getPiece();
+        return piece != null && piece.getPieceType() == pieceType && piece.getPieceAlliance() == alliance && piece.isFirstMove();
+    }
+
     public Player getWhitePlayer() { return whitePlayer; }
     public Player getBlackPlayer() { return blackPlayer; }
     public Player getCurrentPlayer() { return currentPlayer; }
 
     /**
-     * The method calculates legal moves for a given alliance pieces
-     * @param pieces of given alliance
-     * @return list of legal moves
+     * The method collects active pieces of one colour by walking the set bits of its occupancy
+     * @param gameBoard - our chess board
+     * @param occupancy - bitboard of tiles occupied by pieces of one colour
+     * @return - list of pieces that have the same colour
      */
-    private Collection<Move> calculateLegalMoves(Collection<Piece> pieces) {
-        List<Move> legalMoves = new ArrayList<>();
-        for (Piece piece : pieces)
-            legalMoves.addAll(piece.calculateLegalMoves(this)); // add legal moves of current piece
-        return legalMoves;
+    private static Collection<Piece> calculateActivePieces(Tile[] gameBoard, long occupancy) {
+        List<Piece> activePieces = new ArrayList<>(Long.bitCount(occupancy));
+
+        for (long bits = occupancy; bits != 0; bits &= bits - 1)
+            activePieces.add(gameBoard[Long.numberOfTrailingZeros(bits)].getPiece());
+
+        return activePieces;
     }
 
     /**
-     * The method calculate the amount of active pieces that have the same colour
-     * @param gameBoard - our chess board
-     * @param alliance - colour of pieces
-     * @return - list of pieces that have the same colour
+     * The method fills twelve piece bitboards (one per piece type and colour) from the builder
+     * @param builder - our chess board builder
+     * @return array of piece bitboards indexed by BoardUtils.pieceBitboardIndex
      */
-    private static Collection<Piece> calculateActivePieces(List<Tile> gameBoard, Alliance alliance) {
-        List<Piece> activePieces = new ArrayList<>();
+    private static long[] createPieceBitboards(Builder builder) {
+        long[] bitboards = new long[BoardUtils.NUM_PIECE_BITBOARDS];
 
-        for (Tile tile : gameBoard)
-            if (tile.isTileOccupied()) {
-                Piece piece = tile.getPiece();
+        for (int i=0;i<BoardUtils.NUM_TILES;i++) {
+            Piece piece = builder.boardConfig[i];
+            if (piece != null)
+                bitboards[BoardUtils.pieceBitboardIndex(piece.getPieceType(), piece.getPieceAlliance())] |= 1L << i;
+        }
 
-                if (piece.getPieceAlliance() == alliance)
-                    activePieces.add(piece);
-            }
+        return bitboards;
+    }
 
-        return activePieces;
+    /**
+     * @param pieceBitboards - piece bitboards of the board
+     * @param alliance - colour of pieces
+     * @return union of all piece bitboards of given alliance
+     */
+    private static long calculateOccupancy(long[] pieceBitboards, Alliance alliance) {
+        long occupancy = 0L;
+        int firstIndex = alliance.ordinal() * BoardUtils.NUM_PIECE_TYPES;
+
+        for (int i = firstIndex; i < firstIndex + BoardUtils.NUM_PIECE_TYPES; i++)
+            occupancy |= pieceBitboards[i];
+
+        return occupancy;
     }
 
     /**
@@ -80,19 +339,19 @@ public class Board {
      * @return tile on the tileCoordinate
      */
     public Tile getTile(int tileCoordinate) {
-        return gameBoard.get(tileCoordinate);
+        return gameBoard[tileCoordinate];
     }
 
     /**
      *  The method creates chess board using the builder
      * @param builder - our chess board builder
-     * @return chess board list
+     * @return array of tiles indexed by tile coordinate
      */
-    private static List<Tile> createGameBoard(Builder builder) {
-        List<Tile> tiles = new ArrayList<>();
+    private static Tile[] createGameBoard(Builder builder) {
+        Tile[] tiles = new Tile[BoardUtils.NUM_TILES];
 
         for (int i=0;i<BoardUtils.NUM_TILES;i++)
-            tiles.add(Tile.createTile(i, builder.boardConfig.get(i)));
+            tiles[i] = Tile.createTile(i, builder.boardConfig[i]);
 
         return tiles;
     }
@@ -104,39 +363,39 @@ public class Board {
     public static Board createStandartdBoard() {
         Builder builder = new Builder();
         //Black layout
-        builder.setPiece(new Rook(0, Alliance.BLACK));
-        builder.setPiece(new Knight(1, Alliance.BLACK));
-        builder.setPiece(new Bishop(2, Alliance.BLACK));
-        builder.setPiece(new Queen(3, Alliance.BLACK));
-        builder.setPiece(new King(4, Alliance.BLACK));
-        builder.setPiece(new Bishop(5, Alliance.BLACK));
-        builder.setPiece(new Knight(6, Alliance.BLACK));
-        builder.setPiece(new Rook(7, Alliance.BLACK));
-        builder.setPiece(new Pawn(8, Alliance.BLACK));
-        builder.setPiece(new Pawn(9, Alliance.BLACK));
-        builder.setPiece(new Pawn(10, Alliance.BLACK));
-        builder.setPiece(new Pawn(11, Alliance.BLACK));
-        builder.setPiece(new Pawn(12, Alliance.BLACK));
-        builder.setPiece(new Pawn(13, Alliance.BLACK));
-        builder.setPiece(new Pawn(14, Alliance.BLACK));
-        builder.setPiece(new Pawn(15, Alliance.BLACK));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.ROOK, Alliance.BLACK, 0, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.KNIGHT, Alliance.BLACK, 1, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.BISHOP, Alliance.BLACK, 2, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.QUEEN, Alliance.BLACK, 3, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.KING, Alliance.BLACK, 4, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.BISHOP, Alliance.BLACK, 5, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.KNIGHT, Alliance.BLACK, 6, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.ROOK, Alliance.BLACK, 7, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.BLACK, 8, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.BLACK, 9, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.BLACK, 10, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.BLACK, 11, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.BLACK, 12, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.BLACK, 13, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.BLACK, 14, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.BLACK, 15, true));
         //White layout
-        builder.setPiece(new Pawn(48, Alliance.WHITE));
-        builder.setPiece(new Pawn(49, Alliance.WHITE));
-        builder.setPiece(new Pawn(50, Alliance.WHITE));
-        builder.setPiece(new Pawn(51, Alliance.WHITE));
-        builder.setPiece(new Pawn(52, Alliance.WHITE));
-        builder.setPiece(new Pawn(53, Alliance.WHITE));
-        builder.setPiece(new Pawn(54, Alliance.WHITE));
-        builder.setPiece(new Pawn(55, Alliance.WHITE));
-        builder.setPiece(new Rook(56, Alliance.WHITE));
-        builder.setPiece(new Knight(57, Alliance.WHITE));
-        builder.setPiece(new Bishop(58, Alliance.WHITE));
-        builder.setPiece(new Queen(59, Alliance.WHITE));
-        builder.setPiece(new King(60, Alliance.WHITE));
-        builder.setPiece(new Bishop(61, Alliance.WHITE));
-        builder.setPiece(new Knight(62, Alliance.WHITE));
-        builder.setPiece(new Rook(63, Alliance.WHITE));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.WHITE, 48, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.WHITE, 49, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.WHITE, 50, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.WHITE, 51, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.WHITE, 52, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.WHITE, 53, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.WHITE, 54, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.PAWN, Alliance.WHITE, 55, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.ROOK, Alliance.WHITE, 56, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.KNIGHT, Alliance.WHITE, 57, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.BISHOP, Alliance.WHITE, 58, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.QUEEN, Alliance.WHITE, 59, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.KING, Alliance.WHITE, 60, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.BISHOP, Alliance.WHITE, 61, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.KNIGHT, Alliance.WHITE, 62, true));
+        builder.setPiece(Piece.createPiece(Piece.PieceType.ROOK, Alliance.WHITE, 63, true));
 
         builder.setMoveMaker(Alliance.WHITE);
 
@@ -148,7 +407,7 @@ public class Board {
         StringBuilder builder = new StringBuilder();
 
         for (int i=0;i<BoardUtils.NUM_TILES;i++) {
-            String tileText = this.gameBoard.get(i).toString();
+            String tileText = this.gameBoard[i].toString();
             builder.append(String.format("%3s", tileText));
 
             if ((i+1) % BoardUtils.NUM_TILES_PER_ROW == 0)
@@ -158,6 +417,28 @@ public class Board {
         return builder.toString();
     }
 
+    @Override
+    public int hashCode() {
+        return (int) (this.zobristKey ^ (this.zobristKey >>> 32));
+    }
+
+    /**
+     * Boards are equal when they hold the same position: pieces, side to move, castling rights and en passant
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof Board))
+            return false;
+        Board otherBoard = (Board) obj;
+        return this.zobristKey == otherBoard.zobristKey &&
+               Arrays.equals(this.pieceBitboards, otherBoard.pieceBitboards) &&
+               this.currentPlayer.getAlliance() == otherBoard.currentPlayer.getAlliance() &&
+               this.castlingRights == otherBoard.castlingRights &&
+               Objects.equals(this.enPassantPawn, otherBoard.enPassantPawn);
+    }
+
     //TODO check something here!
     public Collection<Move> getAllLegalMoves() {
         List<Move> list = new ArrayList<>();
@@ -171,12 +452,32 @@ public class Board {
      */
     public static class Builder {
 
-        Map<Integer, Piece> boardConfig;
+        final Piece[] boardConfig;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
+        long zobristKey;
+        boolean hasZobristKey;
+        int middlegameScore;
+        int endgameScore;
+        int gamePhase;
+        boolean hasPieceSquareScores;
+        int halfmoveClock;
+        int fullmoveNumber = 1;
+        Board previousBoard;
 
         public Builder() {
-            this.boardConfig = new HashMap<>();
+            this.boardConfig = new Piece[BoardUtils.NUM_TILES];
+        }
+
+        /**
+         * Creates builder holding the pieces of the board, so a move only patches the tiles it changes.
+         * Side to move, en passant pawn, move counters and incremental scores are not copied
+         * @param board - board to copy the pieces from
+         */
+        public Builder(Board board) {
+            this.boardConfig = new Piece[BoardUtils.NUM_TILES];
+            for (int i=0;i<BoardUtils.NUM_TILES;i++)
+                this.boardConfig[i] = board.gameBoard[i].getPiece();
         }
 
         /**
@@ -185,7 +486,16 @@ public class Board {
          * @return builder
          */
         public Builder setPiece(Piece piece) {
-            this.boardConfig.put(piece.getPiecePosition(), piece);
+            this.boardConfig[piece.getPiecePosition()] = piece;
+            return this;
+        }
+
+        /**
+         * @param tileCoordinate - tile to clear
+         * @return builder
+         */
+        public Builder removePiece(int tileCoordinate) {
+            this.boardConfig[tileCoordinate] = null;
             return this;
         }
 
@@ -206,5 +516,43 @@ public class Board {
         public void setEnPassantPawn(Pawn enPassantPawn) {
             this.enPassantPawn = enPassantPawn;
         }
+
+        /**
+         * Sets the position key calculated incrementally by a move, otherwise the board calculates it from scratch
+         * @param zobristKey - key of the built position
+         */
+        public void setZobristKey(long zobristKey) {
+            this.zobristKey = zobristKey;
+            this.hasZobristKey = true;
+        }
+
+        /**
+         * Sets the evaluation sums updated incrementally by a move, otherwise the board calculates them from scratch
+         * @param middlegameScore - middlegame sum of the built position
+         * @param endgameScore - endgame sum of the built position
+         * @param gamePhase - game phase of the built position
+         */
+        public void setPieceSquareScores(int middlegameScore, int endgameScore, int gamePhase) {
+            this.middlegameScore = middlegameScore;
+            this.endgameScore = endgameScore;
+            this.gamePhase = gamePhase;
+            this.hasPieceSquareScores = true;
+        }
+
+        /**
+         * @param halfmoveClock - number of half moves since the last capture or pawn move
+         * @param fullmoveNumber - number of the full move
+         */
+        public void setMoveCounters(int halfmoveClock, int fullmoveNumber) {
+            this.halfmoveClock = halfmoveClock;
+            this.fullmoveNumber = fullmoveNumber;
+        }
+
+        /**
+         * @param previousBoard - board the new board is reached from by a move which is no capture or pawn move
+         */
+        void setPreviousBoard(Board previousBoard) {
+            this.previousBoard = previousBoard;
+        }
     }
 }
@@ -1,5 +1,8 @@
 package chess.engine.board;
 
+import chess.engine.Alliance;
+import chess.engine.pieces.Piece;
+
 import java.util.HashMap;
 import java.util.Map;
 
@@ -24,6 +27,27 @@ public class BoardUtils {
     public static final int START_TILE_INDEX = 0;
     public static final int NUM_TILES = 64;
     public static final int NUM_TILES_PER_ROW = 8;
+    public static final int NUM_PIECE_TYPES = 6;
+    public static final int NUM_PIECE_BITBOARDS = 2 * NUM_PIECE_TYPES;
+    /** Half moves without a capture or pawn move after which the game is drawn */
+    public static final int FIFTY_MOVE_RULE_PLIES = 100;
+
+    public static final int WHITE_KING_SIDE_CASTLE = 1;
+    public static final int WHITE_QUEEN_SIDE_CASTLE = 2;
+    public static final int BLACK_KING_SIDE_CASTLE = 4;
+    public static final int BLACK_QUEEN_SIDE_CASTLE = 8;
+    /** Castling rights kept when a piece leaves or enters a tile */
+    public static final int[] CASTLING_RIGHTS_MASKS = initCastlingRightsMasks();
+
+    public static final long[] KNIGHT_ATTACKS = initLeaperAttacks(new int[][] {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}});
+    public static final long[] KING_ATTACKS = initLeaperAttacks(new int[][] {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}});
+    /** Tiles attacked by a pawn standing on a tile, indexed by [alliance ordinal][tile] */
+    public static final long[][] PAWN_ATTACKS = {
+            initLeaperAttacks(new int[][] {{Alliance.WHITE.getDirection(), -1}, {Alliance.WHITE.getDirection(), 1}}),
+            initLeaperAttacks(new int[][] {{Alliance.BLACK.getDirection(), -1}, {Alliance.BLACK.getDirection(), 1}})
+    };
+    /** Tiles strictly between two tiles of one row, column or diagonal, indexed by [tile][tile], otherwise empty */
+    public static final long[][] BETWEEN = initBetween();
 
     public static final String[] ALGEBRAIC_NOTATION = initializeAlgebraicNotation();
     public static final Map<String, Integer> POSITION_TO_COORDINATE = initializePositionToCoordinateMap();
@@ -82,6 +106,64 @@ public class BoardUtils {
         return row;
     }
 
+    /**
+     * @return per tile masks of castling rights, the rights of a king or rook are cleared on its initial tile
+     */
+    private static int[] initCastlingRightsMasks() {
+        int[] masks = new int[NUM_TILES];
+        for (int i = 0; i < NUM_TILES; i++)
+            masks[i] = WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE |
+                       BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE;
+
+        masks[60] &= ~(WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE);
+        masks[63] &= ~WHITE_KING_SIDE_CASTLE;
+        masks[56] &= ~WHITE_QUEEN_SIDE_CASTLE;
+        masks[4] &= ~(BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        masks[7] &= ~BLACK_KING_SIDE_CASTLE;
+        masks[0] &= ~BLACK_QUEEN_SIDE_CASTLE;
+        return masks;
+    }
+    /**
+     * @param steps - row and column steps of a leaping piece
+     * @return bitboards of tiles reachable in one step from every tile
+     */
+    private static long[] initLeaperAttacks(int[][] steps) {
+        long[] attacks = new long[NUM_TILES];
+
+        for (int i = 0; i < NUM_TILES; i++)
+            for (int[] step : steps) {
+                int row = i / NUM_TILES_PER_ROW + step[0];
+                int column = i % NUM_TILES_PER_ROW + step[1];
+
+                if (row >= 0 && row < NUM_TILES_PER_ROW && column >= 0 && column < NUM_TILES_PER_ROW)
+                    attacks[i] |= 1L << (row * NUM_TILES_PER_ROW + column);
+            }
+
+        return attacks;
+    }
+
+    private static long[][] initBetween() {
+        long[][] between = new long[NUM_TILES][NUM_TILES];
+        int[][] directions = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+        for (int i = 0; i < NUM_TILES; i++)
+            for (int[] direction : directions) {
+                long ray = 0L;
+                int row = i / NUM_TILES_PER_ROW + direction[0];
+                int column = i % NUM_TILES_PER_ROW + direction[1];
+
+                while (row >= 0 && row < NUM_TILES_PER_ROW && column >= 0 && column < NUM_TILES_PER_ROW) {
+                    int tile = row * NUM_TILES_PER_ROW + column;
+                    between[i][tile] = ray;
+                    ray |= 1L << tile;
+                    row += direction[0];
+                    column += direction[1];
+                }
+            }
+
+        return between;
+    }
+
     /**
      * @param coordinate of candidate piece
      * @return true if piece on the board else false
@@ -90,6 +172,15 @@ public class BoardUtils {
         return coordinate >= 0 && coordinate < NUM_TILES;
     }
 
+    /**
+     * @param pieceType - type of piece
+     * @param alliance - colour of piece
+     * @return index of the bitboard which holds pieces of given type and colour
+     */
+    public static int pieceBitboardIndex(Piece.PieceType pieceType, Alliance alliance) {
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
     public static int getCoordinateAtPosition(final String position) {
         return POSITION_TO_COORDINATE.get(position);
     }
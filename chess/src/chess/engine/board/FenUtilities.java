@@ -0,0 +1,302 @@
+package chess.engine.board;
+
+import chess.engine.Alliance;
+import chess.engine.pieces.Pawn;
+import chess.engine.pieces.Piece;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Utils for reading and writing boards in Forsyth–Edwards Notation.
+ *
+ * The reader walks the characters once and puts pieces straight into a Board.Builder, without splitting
+ * the text into strings, so files with many positions can be loaded line by line from a ByteBuffer.
+ */
+public class FenUtilities {
+    /** FEN symbols indexed by BoardUtils.pieceBitboardIndex */
+    private static final String PIECE_SYMBOLS = "PNBRQKpnbrqk";
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+
+    private FenUtilities() {
+        throw new RuntimeException("Cannot create object of this class");
+    }
+
+    /**
+     * Creates a board from a FEN string
+     * @param fenString - position in FEN
+     * @return new game board
+     */
+    public static Board createGameFromFEN(String fenString) {
+        return parse(fenString).build();
+    }
+
+    /**
+     * @param fen - position in FEN
+     * @return builder holding the position
+     */
+    public static Board.Builder parse(CharSequence fen) {
+        return parse(fen, 0, fen.length());
+    }
+
+    /**
+     * Reads one line of US-ASCII text from the buffer's position and moves the position to the next line
+     * @param buffer - buffer with one FEN per line
+     * @return builder holding the position
+     */
+    public static Board.Builder parse(ByteBuffer buffer) {
+        int start = buffer.position();
+        int limit = buffer.limit();
+        int end = start;
+        while (end < limit && buffer.get(end) != '\n')
+            end++;
+        buffer.position(end < limit ? end + 1 : end);
+        return parse(new AsciiSequence(buffer), start, end);
+    }
+
+    /**
+     * Reads piece placement, side to move, castling rights, en passant tile and move counters.
+     * Everything after piece placement and side to move is optional.
+     * @param fen - text holding the position
+     * @param start - index of the first character
+     * @param end - index after the last character
+     * @return builder holding the position
+     */
+    public static Board.Builder parse(CharSequence fen, int start, int end) {
+        Board.Builder builder = new Board.Builder();
+        int index = skipSpaces(fen, start, end);
+
+        // every rank holds exactly 8 tiles and ranks are separated by exactly 7 slashes
+        int tileCoordinate = BoardUtils.START_TILE_INDEX;
+        int rankEnd = BoardUtils.NUM_TILES_PER_ROW;
+        int whiteKings = 0;
+        int blackKings = 0;
+        for (; index < end && fen.charAt(index) > ' '; index++) {
+            char symbol = fen.charAt(index);
+            if (symbol == '/') {
+                if (tileCoordinate != rankEnd || rankEnd == BoardUtils.NUM_TILES)
+                    throw invalidFen(fen, start, end);
+                rankEnd += BoardUtils.NUM_TILES_PER_ROW;
+                continue;
+            }
+            if (symbol >= '1' && symbol <= '8') {
+                tileCoordinate += symbol - '0';
+                if (tileCoordinate > rankEnd)
+                    throw invalidFen(fen, start, end);
+                continue;
+            }
+            int pieceIndex = PIECE_SYMBOLS.indexOf(symbol);
+            if (pieceIndex < 0 || tileCoordinate >= rankEnd)
+                throw invalidFen(fen, start, end);
+
+            Piece.PieceType pieceType = PIECE_TYPES[pieceIndex % BoardUtils.NUM_PIECE_TYPES];
+            Alliance alliance = pieceIndex < BoardUtils.NUM_PIECE_TYPES ? Alliance.WHITE : Alliance.BLACK;
+            // a position without exactly one king per side or with a pawn on a back rank can not be played
+            if (pieceType == Piece.PieceType.KING) {
+                if (alliance.isWhite())
+                    whiteKings++;
+                else
+                    blackKings++;
+            } else if (pieceType == Piece.PieceType.PAWN &&
+                    (BoardUtils.FIRST_RANK[tileCoordinate] || BoardUtils.EIGHTH_RANK[tileCoordinate])) {
+                throw invalidFen(fen, start, end);
+            }
+            // pawns keep their first move on the initial rank, kings and rooks get it back with the castling rights
+            boolean isFirstMove = pieceType == Piece.PieceType.PAWN &&
+                    (alliance.isWhite() ? BoardUtils.SECOND_RANK[tileCoordinate] : BoardUtils.SEVENTH_RANK[tileCoordinate]);
+            builder.setPiece(Piece.createPiece(pieceType, alliance, tileCoordinate, isFirstMove));
+            tileCoordinate++;
+        }
+        if (tileCoordinate != BoardUtils.NUM_TILES || rankEnd != BoardUtils.NUM_TILES ||
+                whiteKings != 1 || blackKings != 1)
+            throw invalidFen(fen, start, end);
+
+        index = skipSpaces(fen, index, end);
+        if (index == end)
+            throw invalidFen(fen, start, end);
+        Alliance moveMaker;
+        char moveMakerSymbol = fen.charAt(index++);
+        if (moveMakerSymbol == 'w')
+            moveMaker = Alliance.WHITE;
+        else if (moveMakerSymbol == 'b')
+            moveMaker = Alliance.BLACK;
+        else
+            throw invalidFen(fen, start, end);
+        builder.setMoveMaker(moveMaker);
+
+        index = skipSpaces(fen, index, end);
+        for (; index < end && fen.charAt(index) > ' '; index++) {
+            switch (fen.charAt(index)) {
+                case 'K': setUnmoved(builder, 60, Alliance.WHITE); setUnmoved(builder, 63, Alliance.WHITE); break;
+                case 'Q': setUnmoved(builder, 60, Alliance.WHITE); setUnmoved(builder, 56, Alliance.WHITE); break;
+                case 'k': setUnmoved(builder, 4, Alliance.BLACK); setUnmoved(builder, 7, Alliance.BLACK); break;
+                case 'q': setUnmoved(builder, 4, Alliance.BLACK); setUnmoved(builder, 0, Alliance.BLACK); break;
+                case '-': break;
+                default: throw invalidFen(fen, start, end);
+            }
+        }
+
+        index = skipSpaces(fen, index, end);
+        if (index < end && fen.charAt(index) == '-') {
+            index++;
+        } else if (index + 1 < end) {
+            int file = fen.charAt(index) - 'a';
+            int rank = fen.charAt(index + 1) - '0';
+            if (file < 0 || file >= BoardUtils.NUM_TILES_PER_ROW || rank != (moveMaker.isWhite() ? 6 : 3))
+                throw invalidFen(fen, start, end);
+            index += 2;
+
+            // the pawn which has just jumped stands one tile in front of the en passant tile
+            int enPassantTile = (BoardUtils.NUM_TILES_PER_ROW - rank) * BoardUtils.NUM_TILES_PER_ROW + file;
+            Piece pawn = builder.boardConfig[enPassantTile - moveMaker.getDirection() * BoardUtils.NUM_TILES_PER_ROW];
+            if (pawn instanceof Pawn && pawn.getPieceAlliance() != moveMaker)
+                builder.setEnPassantPawn((Pawn) pawn);
+        }
+
+        index = skipSpaces(fen, index, end);
+        int halfmoveClock = 0;
+        int fullmoveNumber = 1;
+        if (index < end) {
+            int numberEnd = skipDigits(fen, index, end);
+            halfmoveClock = parseNumber(fen, index, numberEnd, start, end);
+            index = skipSpaces(fen, numberEnd, end);
+            if (index < end) {
+                numberEnd = skipDigits(fen, index, end);
+                fullmoveNumber = parseNumber(fen, index, numberEnd, start, end);
+                index = skipSpaces(fen, numberEnd, end);
+            }
+        }
+        if (index != end)
+            throw invalidFen(fen, start, end);
+        builder.setMoveCounters(halfmoveClock, fullmoveNumber);
+
+        return builder;
+    }
+
+    /**
+     * @param board - game board
+     * @return position in FEN
+     */
+    public static String createFENFromGame(Board board) {
+        return appendFEN(new StringBuilder(90), board).toString();
+    }
+
+    /**
+     * Writes the position in FEN to the end of the string builder
+     * @param builder - string builder to write to
+     * @param board - game board
+     * @return the string builder
+     */
+    public static StringBuilder appendFEN(StringBuilder builder, Board board) {
+        for (int row = 0; row < BoardUtils.NUM_TILES_PER_ROW; row++) {
+            if (row > 0)
+                builder.append('/');
+            int emptyTiles = 0;
+            for (int column = 0; column < BoardUtils.NUM_TILES_PER_ROW; column++) {
+                Piece piece = board.getTile(row * BoardUtils.NUM_TILES_PER_ROW + column).getPiece();
+                if (piece == null) {
+                    emptyTiles++;
+                    continue;
+                }
+                if (emptyTiles > 0)
+                    builder.append((char) ('0' + emptyTiles));
+                emptyTiles = 0;
+                builder.append(PIECE_SYMBOLS.charAt(BoardUtils.pieceBitboardIndex(piece.getPieceType(), piece.getPieceAlliance())));
+            }
+            if (emptyTiles > 0)
+                builder.append((char) ('0' + emptyTiles));
+        }
+
+        builder.append(board.getCurrentPlayer().getAlliance().isWhite() ? " w " : " b ");
+
+        int castlingRights = board.getCastlingRights();
+        if (castlingRights == 0)
+            builder.append('-');
+        if ((castlingRights & BoardUtils.WHITE_KING_SIDE_CASTLE) != 0)
+            builder.append('K');
+        if ((castlingRights & BoardUtils.WHITE_QUEEN_SIDE_CASTLE) != 0)
+            builder.append('Q');
+        if ((castlingRights & BoardUtils.BLACK_KING_SIDE_CASTLE) != 0)
+            builder.append('k');
+        if ((castlingRights & BoardUtils.BLACK_QUEEN_SIDE_CASTLE) != 0)
+            builder.append('q');
+
+        Pawn enPassantPawn = board.getEnPassantPawn();
+        builder.append(' ');
+        if (enPassantPawn == null)
+            builder.append('-');
+        else
+            builder.append(BoardUtils.getPositionAtCoordinate(enPassantPawn.getPiecePosition() -
+                    enPassantPawn.getPieceAlliance().getDirection() * BoardUtils.NUM_TILES_PER_ROW));
+
+        return builder.append(' ').append(board.getHalfmoveClock()).append(' ').append(board.getFullmoveNumber());
+    }
+
+    /**
+     * Gives the first move back to an unmoved king or rook, so the board grants the castling right
+     */
+    private static void setUnmoved(Board.Builder builder, int tileCoordinate, Alliance alliance) {
+        Piece piece = builder.boardConfig[tileCoordinate];
+        if (piece != null && piece.getPieceAlliance() == alliance &&
+                (piece.getPieceType() == Piece.PieceType.KING || piece.getPieceType() == Piece.PieceType.ROOK))
+            builder.setPiece(Piece.createPiece(piece.getPieceType(), alliance, tileCoordinate, true));
+    }
+
+    private static int skipSpaces(CharSequence fen, int index, int end) {
+        while (index < end && fen.charAt(index) <= ' ')
+            index++;
+        return index;
+    }
+
+    private static int skipDigits(CharSequence fen, int index, int end) {
+        while (index < end && fen.charAt(index) >= '0' && fen.charAt(index) <= '9')
+            index++;
+        return index;
+    }
+
+    private static int parseNumber(CharSequence fen, int index, int numberEnd, int start, int end) {
+        if (index == numberEnd || numberEnd - index > 9)
+            throw invalidFen(fen, start, end);
+        int number = 0;
+        for (; index < numberEnd; index++)
+            number = number * 10 + fen.charAt(index) - '0';
+        return number;
+    }
+
+    private static IllegalArgumentException invalidFen(CharSequence fen, int start, int end) {
+        return new IllegalArgumentException("Invalid FEN: " + fen.subSequence(start, end));
+    }
+
+    /**
+     * US-ASCII view of a byte buffer, indexed like the buffer itself
+     */
+    private static class AsciiSequence implements CharSequence {
+        private final ByteBuffer buffer;
+
+        AsciiSequence(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int length() {
+            return this.buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (this.buffer.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            StringBuilder builder = new StringBuilder(end - start);
+            for (int i = start; i < end; i++)
+                builder.append(charAt(i));
+            return builder;
+        }
+
+        @Override
+        public String toString() {
+            return subSequence(0, length()).toString();
+        }
+    }
+}
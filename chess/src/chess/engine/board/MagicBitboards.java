@@ -0,0 +1,187 @@
+package chess.engine.board;
+
+/**
+ * Precomputed attack tables for sliding pieces (rook, bishop, queen).
+ *
+ * For every tile the relevant blockers are masked out of the occupancy, multiplied by a magic number and
+ * shifted down to an index into a flat attack table, so one lookup costs one multiply, one shift and one load.
+ * Rays are generated from rows and columns, so wraparound between the first and the eighth column cannot happen.
+ */
+public final class MagicBitboards {
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] ROOK_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] ROOK_MAGICS = new long[BoardUtils.NUM_TILES];
+    private static final int[] ROOK_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final int[] ROOK_OFFSETS = new int[BoardUtils.NUM_TILES];
+    private static final long[] ROOK_ATTACKS = initAttackTable(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+
+    private static final long[] BISHOP_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] BISHOP_MAGICS = new long[BoardUtils.NUM_TILES];
+    private static final int[] BISHOP_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final int[] BISHOP_OFFSETS = new int[BoardUtils.NUM_TILES];
+    private static final long[] BISHOP_ATTACKS = initAttackTable(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+
+    private MagicBitboards() {
+        throw new RuntimeException("Cannot create object of this class");
+    }
+
+    /**
+     * @param tileCoordinate - position of the rook
+     * @param occupancy - bitboard of all occupied tiles
+     * @return bitboard of tiles attacked by a rook, including the first blocker on every ray
+     */
+    public static long getRookAttacks(int tileCoordinate, long occupancy) {
+        return ROOK_ATTACKS[ROOK_OFFSETS[tileCoordinate] +
+                (int) (((occupancy & ROOK_MASKS[tileCoordinate]) * ROOK_MAGICS[tileCoordinate]) >>> ROOK_SHIFTS[tileCoordinate])];
+    }
+
+    /**
+     * @param tileCoordinate - position of the bishop
+     * @param occupancy - bitboard of all occupied tiles
+     * @return bitboard of tiles attacked by a bishop, including the first blocker on every ray
+     */
+    public static long getBishopAttacks(int tileCoordinate, long occupancy) {
+        return BISHOP_ATTACKS[BISHOP_OFFSETS[tileCoordinate] +
+                (int) (((occupancy & BISHOP_MASKS[tileCoordinate]) * BISHOP_MAGICS[tileCoordinate]) >>> BISHOP_SHIFTS[tileCoordinate])];
+    }
+
+    /**
+     * @param tileCoordinate - position of the queen
+     * @param occupancy - bitboard of all occupied tiles
+     * @return bitboard of tiles attacked by a queen
+     */
+    public static long getQueenAttacks(int tileCoordinate, long occupancy) {
+        return getRookAttacks(tileCoordinate, occupancy) | getBishopAttacks(tileCoordinate, occupancy);
+    }
+
+    /**
+     * The method finds a magic number for every tile and fills the flat attack table
+     * @param directions - row and column steps of the rays
+     * @param masks - output, relevant blocker mask per tile
+     * @param magics - output, magic number per tile
+     * @param shifts - output, shift per tile
+     * @param offsets - output, start of the tile's block in the returned table
+     * @return flat attack table
+     */
+    private static long[] initAttackTable(int[][] directions, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int tableSize = 0;
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            masks[i] = calculateRelevantMask(i, directions);
+            shifts[i] = 64 - Long.bitCount(masks[i]);
+            offsets[i] = tableSize;
+            tableSize += 1 << Long.bitCount(masks[i]);
+        }
+
+        long[] table = new long[tableSize];
+        long seed = 0x2545F4914F6CDD1DL;
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            int subsetCount = 1 << Long.bitCount(masks[i]);
+            long[] occupancies = new long[subsetCount];
+            long[] attacks = new long[subsetCount];
+
+            long subset = 0L;
+            for (int j = 0; j < subsetCount; j++) { // carry-rippler enumeration of all blocker subsets
+                occupancies[j] = subset;
+                attacks[j] = calculateRayAttacks(i, subset, directions);
+                subset = (subset - masks[i]) & masks[i];
+            }
+
+            long[] candidateTable = new long[subsetCount];
+            int[] usedInAttempt = new int[subsetCount];
+            int attempt = 0;
+            while (true) {
+                attempt++;
+                seed = nextRandom(seed);
+                long first = seed;
+                seed = nextRandom(seed);
+                long second = seed;
+                seed = nextRandom(seed);
+                long magic = first & second & seed; // sparse random numbers make good magics
+
+                if (Long.bitCount((masks[i] * magic) & 0xFF00000000000000L) < 6)
+                    continue;
+
+                boolean collision = false;
+                for (int j = 0; j < subsetCount && !collision; j++) {
+                    int index = (int) ((occupancies[j] * magic) >>> shifts[i]);
+                    if (usedInAttempt[index] != attempt) {
+                        usedInAttempt[index] = attempt;
+                        candidateTable[index] = attacks[j];
+                    } else if (candidateTable[index] != attacks[j])
+                        collision = true;
+                }
+
+                if (!collision) {
+                    magics[i] = magic;
+                    System.arraycopy(candidateTable, 0, table, offsets[i], subsetCount);
+                    break;
+                }
+            }
+        }
+        return table;
+    }
+
+    /**
+     * @param tileCoordinate - position of the slider
+     * @param directions - row and column steps of the rays
+     * @return bitboard of ray tiles whose occupancy can change the attacks (board edges excluded)
+     */
+    private static long calculateRelevantMask(int tileCoordinate, int[][] directions) {
+        long mask = 0L;
+        int row = tileCoordinate / BoardUtils.NUM_TILES_PER_ROW;
+        int column = tileCoordinate % BoardUtils.NUM_TILES_PER_ROW;
+
+        for (int[] direction : directions) {
+            int r = row + direction[0];
+            int c = column + direction[1];
+            while (isInside(r + direction[0], c + direction[1])) {
+                mask |= 1L << (r * BoardUtils.NUM_TILES_PER_ROW + c);
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * @param tileCoordinate - position of the slider
+     * @param occupancy - bitboard of blockers
+     * @param directions - row and column steps of the rays
+     * @return bitboard of attacked tiles, found by walking every ray up to the first blocker
+     */
+    private static long calculateRayAttacks(int tileCoordinate, long occupancy, int[][] directions) {
+        long attacks = 0L;
+        int row = tileCoordinate / BoardUtils.NUM_TILES_PER_ROW;
+        int column = tileCoordinate % BoardUtils.NUM_TILES_PER_ROW;
+
+        for (int[] direction : directions) {
+            int r = row + direction[0];
+            int c = column + direction[1];
+            while (isInside(r, c)) {
+                long tile = 1L << (r * BoardUtils.NUM_TILES_PER_ROW + c);
+                attacks |= tile;
+                if ((occupancy & tile) != 0)
+                    break; // obstacle piece
+                r += direction[0];
+                c += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean isInside(int row, int column) {
+        return row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    /**
+     * xorshift64 step, seeded with a constant so the tables are the same on every run
+     */
+    private static long nextRandom(long seed) {
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return seed;
+    }
+}
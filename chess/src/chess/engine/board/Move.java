@@ -49,6 +49,13 @@ public abstract class Move {
                getMovedPiece().equals(otherMove.getMovedPiece());
     }
 
+    /**
+     * @return board this move is made on
+     */
+    public Board getBoard() {
+        return this.board;
+    }
+
     public int getCurrentCoordinate() {
         return this.movedPiece.getPiecePosition();
     }
@@ -73,24 +80,100 @@ public abstract class Move {
         return null;
     }
 
+    /**
+     * @return type of the piece a pawn is promoted to, or null if this move is no promotion
+     */
+    public Piece.PieceType getPromotionType() {
+        return null;
+    }
+
+
+    /**
+     * Updates the position key of the board incrementally: the moved piece leaves its tile and enters the
+     * destination, the attacked piece (if any) disappears, castling rights and en passant file change and
+     * the side to move flips
+     * @return position key of the board after this move
+     */
+    protected long calculateZobristKey() {
+        int currentCoordinate = getCurrentCoordinate();
+        long key = this.board.getZobristKey() ^ Zobrist.sideToMoveKey() ^
+                   Zobrist.pieceKey(this.movedPiece, currentCoordinate) ^
+                   Zobrist.pieceKey(this.movedPiece, this.destinationCoordinate);
+
+        Piece attackedPiece = getAttackedPiece();
+        if (attackedPiece != null)
+            key ^= Zobrist.pieceKey(attackedPiece, attackedPiece.getPiecePosition());
+
+        int castlingRights = this.board.getCastlingRights();
+        key ^= Zobrist.castlingKey(castlingRights) ^
+               Zobrist.castlingKey(castlingRights & BoardUtils.CASTLING_RIGHTS_MASKS[currentCoordinate] &
+                                   BoardUtils.CASTLING_RIGHTS_MASKS[this.destinationCoordinate]);
+
+        if (this.board.getEnPassantPawn() != null)
+            key ^= Zobrist.enPassantKey(this.board.getEnPassantPawn().getPiecePosition());
+
+        return key;
+    }
+
+    /**
+     * Passes the evaluation sums of the board, updated by the pieces this move displaces, to the new board
+     * @param builder - builder of the board after this move
+     */
+    protected void setPieceSquareScores(Builder builder) {
+        builder.setPieceSquareScores(this.board.getMiddlegameScore() + calculateScoreDelta(PieceSquareTables.MIDDLEGAME),
+                                     this.board.getEndgameScore() + calculateScoreDelta(PieceSquareTables.ENDGAME),
+                                     this.board.getGamePhase() + calculatePhaseDelta());
+    }
+
+    /**
+     * @return change of the game phase by this move
+     */
+    protected int calculatePhaseDelta() {
+        Piece attackedPiece = getAttackedPiece();
+        return attackedPiece == null ? 0 : -PieceSquareTables.getPhaseWeight(attackedPiece);
+    }
+
+    /**
+     * Passes the move counters to the new board and links it to this board for repetition checks: captures and
+     * pawn moves reset the halfmove clock and cut the link, the full move number grows after black's move
+     * @param builder - builder of the board after this move
+     */
+    protected void setMoveCounters(Builder builder) {
+        boolean resetsClock = isAttack() || this.movedPiece.getPieceType() == Piece.PieceType.PAWN;
+        builder.setMoveCounters(resetsClock ? 0 : this.board.getHalfmoveClock() + 1,
+                                this.board.getFullmoveNumber() + (this.movedPiece.getPieceAlliance().isBlack() ? 1 : 0));
+        if (!resetsClock)
+            builder.setPreviousBoard(this.board);
+    }
+
+    /**
+     * @param values - signed piece-square values, see PieceSquareTables
+     * @return change of the evaluation sum by this move
+     */
+    protected int calculateScoreDelta(int[][] values) {
+        int[] movedPieceValues = values[BoardUtils.pieceBitboardIndex(this.movedPiece.getPieceType(), this.movedPiece.getPieceAlliance())];
+        int delta = movedPieceValues[this.destinationCoordinate] - movedPieceValues[getCurrentCoordinate()];
+
+        Piece attackedPiece = getAttackedPiece();
+        if (attackedPiece != null)
+            delta -= values[BoardUtils.pieceBitboardIndex(attackedPiece.getPieceType(), attackedPiece.getPieceAlliance())][attackedPiece.getPiecePosition()];
+        return delta;
+    }
 
     /**
      * Executes the major move
      * @return new board, after moving
      */
     public Board execute() {
-        Builder builder = new Builder();
-
-        for (Piece piece : this.board.getCurrentPlayer().getActivePieces())
-            if (!this.movedPiece.equals(piece))
-                builder.setPiece(piece);
+        Builder builder = new Builder(this.board);
 
-        for (Piece piece : this.board.getCurrentPlayer().getOpponent().getActivePieces())
-            builder.setPiece(piece);
-
-        //move the moved piece!
+        //move the moved piece! it replaces an attacked piece on the destination tile
+        builder.removePiece(this.movedPiece.getPiecePosition());
         builder.setPiece(this.movedPiece.movePiece(this));
         builder.setMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+        builder.setZobristKey(calculateZobristKey());
+        setPieceSquareScores(builder);
+        setMoveCounters(builder);
 
         return builder.build();
     }
@@ -190,23 +273,28 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-            Builder builder = new Builder();
-
-            for (Piece piece : this.board.getCurrentPlayer().getActivePieces())
-                if (!this.movedPiece.equals(piece))
-                    builder.setPiece(piece);
-
-            for (Piece piece : this.board.getCurrentPlayer().getOpponent().getActivePieces())
-                builder.setPiece(piece);
+            Builder builder = new Builder(this.board);
+            builder.removePiece(this.movedPiece.getPiecePosition());
 
             Pawn movedPawn = (Pawn) this.movedPiece.movePiece(this);
             builder.setPiece(movedPawn);
             builder.setEnPassantPawn(movedPawn);
             builder.setMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey());
+            setPieceSquareScores(builder);
+            setMoveCounters(builder);
 
             return builder.build();
         }
 
+        /**
+         * The jumped pawn also becomes the en passant pawn of the new board
+         */
+        @Override
+        protected long calculateZobristKey() {
+            return super.calculateZobristKey() ^ Zobrist.enPassantKey(this.destinationCoordinate);
+        }
+
         @Override
         public String toString() {
             return BoardUtils.getPositionAtCoordinate(this.destinationCoordinate);
@@ -249,17 +337,14 @@ public abstract class Move {
 
         @Override
         public Board execute() {
-            Builder builder = new Builder();
-            for (Piece piece : this.board.getCurrentPlayer().getActivePieces()) {
-                if (!this.movedPiece.equals(piece))
-                    builder.setPiece(piece);
-            }
-            for (Piece piece : this.board.getCurrentPlayer().getOpponent().getActivePieces()) {
-                if (!this.movedPiece.equals(piece))
-                    builder.setPiece(piece);
-            }
+            Builder builder = new Builder(this.board);
+            builder.removePiece(this.movedPiece.getPiecePosition());
+            builder.removePiece(getAttackedPiece().getPiecePosition());
             builder.setPiece(this.movedPiece.movePiece(this));
             builder.setMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey());
+            setPieceSquareScores(builder);
+            setMoveCounters(builder);
             return builder.build();
         }
 
@@ -275,6 +360,93 @@ public abstract class Move {
         }
     }
 
+    /**
+     * Pawn promotion, decorates the pawn move or pawn attack move to the last rank
+     */
+    public static final class PawnPromotion extends Move {
+        private final Move decoratedMove;
+        private final Piece promotedPiece;
+
+        public PawnPromotion(Move decoratedMove,
+                             Piece.PieceType promotionType) {
+            super(decoratedMove.board, decoratedMove.movedPiece, decoratedMove.destinationCoordinate);
+            this.decoratedMove = decoratedMove;
+            this.promotedPiece = Piece.createPiece(promotionType, decoratedMove.movedPiece.getPieceAlliance(),
+                                                   decoratedMove.destinationCoordinate, false);
+        }
+
+        @Override
+        public Board execute() {
+            Builder builder = new Builder(this.board);
+            builder.removePiece(this.movedPiece.getPiecePosition());
+            builder.setPiece(this.promotedPiece);
+            builder.setMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey());
+            setPieceSquareScores(builder);
+            setMoveCounters(builder);
+            return builder.build();
+        }
+
+        /**
+         * The promoted piece instead of the pawn enters the destination tile
+         */
+        @Override
+        protected long calculateZobristKey() {
+            return super.calculateZobristKey() ^
+                   Zobrist.pieceKey(this.movedPiece, this.destinationCoordinate) ^
+                   Zobrist.pieceKey(this.promotedPiece, this.destinationCoordinate);
+        }
+
+        @Override
+        protected int calculateScoreDelta(int[][] values) {
+            int pawnIndex = BoardUtils.pieceBitboardIndex(this.movedPiece.getPieceType(), this.movedPiece.getPieceAlliance());
+            int promotedIndex = BoardUtils.pieceBitboardIndex(this.promotedPiece.getPieceType(), this.promotedPiece.getPieceAlliance());
+            return super.calculateScoreDelta(values) - values[pawnIndex][this.destinationCoordinate] +
+                   values[promotedIndex][this.destinationCoordinate];
+        }
+
+        @Override
+        protected int calculatePhaseDelta() {
+            return super.calculatePhaseDelta() + PieceSquareTables.getPhaseWeight(this.promotedPiece);
+        }
+
+        @Override
+        public boolean isAttack() {
+            return this.decoratedMove.isAttack();
+        }
+
+        @Override
+        public Piece getAttackedPiece() {
+            return this.decoratedMove.getAttackedPiece();
+        }
+
+        @Override
+        public Piece.PieceType getPromotionType() {
+            return this.promotedPiece.getPieceType();
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.decoratedMove.hashCode() + this.promotedPiece.getPieceType().hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj)
+                return true;
+            if (!(obj instanceof PawnPromotion))
+                return false;
+            PawnPromotion otherPromotion = (PawnPromotion) obj;
+            return this.decoratedMove.equals(otherPromotion.decoratedMove) &&
+                   getPromotionType() == otherPromotion.getPromotionType();
+        }
+
+        @Override
+        public String toString() {
+            return this.decoratedMove.toString() + "=" + getPromotionType();
+        }
+    }
+
     /**
      * Castle move
      */
@@ -311,23 +483,39 @@ public abstract class Move {
          */
         @Override
         public Board execute() {
-            Builder builder = new Builder();
-
-            for (Piece piece : this.board.getCurrentPlayer().getActivePieces())
-                if (!this.movedPiece.equals(piece) && !this.castleRook.equals(piece))
-                    builder.setPiece(piece);
-
-            for (Piece piece : this.board.getCurrentPlayer().getOpponent().getActivePieces())
-                builder.setPiece(piece);
+            Builder builder = new Builder(this.board);
+            builder.removePiece(this.movedPiece.getPiecePosition());
+            builder.removePiece(this.castleRook.getPiecePosition());
 
             builder.setPiece(this.movedPiece.movePiece(this));
-            //TODO is first move!
-            builder.setPiece(new Rook(this.castleRookDestination, this.castleRook.getPieceAlliance()));
+            builder.setPiece(Piece.createPiece(Piece.PieceType.ROOK, this.castleRook.getPieceAlliance(), this.castleRookDestination, false));
             builder.setMoveMaker(this.board.getCurrentPlayer().getOpponent().getAlliance());
+            builder.setZobristKey(calculateZobristKey());
+            setPieceSquareScores(builder);
+            setMoveCounters(builder);
 
             return builder.build();
         }
 
+        /**
+         * The castle rook changes its piece-square value as well
+         */
+        @Override
+        protected int calculateScoreDelta(int[][] values) {
+            int[] rookValues = values[BoardUtils.pieceBitboardIndex(this.castleRook.getPieceType(), this.castleRook.getPieceAlliance())];
+            return super.calculateScoreDelta(values) + rookValues[this.castleRookDestination] - rookValues[this.castleRookStart];
+        }
+
+        /**
+         * The castle rook also moves from its start to its destination tile
+         */
+        @Override
+        protected long calculateZobristKey() {
+            return super.calculateZobristKey() ^
+                   Zobrist.pieceKey(this.castleRook, this.castleRookStart) ^
+                   Zobrist.pieceKey(this.castleRook, this.castleRookDestination);
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -416,14 +604,16 @@ public abstract class Move {
     public static class MoveFactory {
         private MoveFactory() { throw new RuntimeException("Not instantiable!"); }
 
+        /**
+         * @param board - game board
+         * @param currentCoordinate - start tile
+         * @param destinationCoordinate - destination tile
+         * @return legal move of the player to move between the tiles, or NULL_MOVE
+         */
         public static Move createMove(Board board,
                                       int currentCoordinate,
                                       int destinationCoordinate) {
-            for (Move move : board.getAllLegalMoves())
-                if (move.getCurrentCoordinate() == currentCoordinate &&
-                    move.getDestinationCoordinate() == destinationCoordinate)
-                        return move;
-            return NULL_MOVE;
+            return board.getCurrentPlayer().getLegalMove(currentCoordinate, destinationCoordinate);
         }
     }
 }
\ No newline at end of file
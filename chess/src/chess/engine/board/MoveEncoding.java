@@ -0,0 +1,124 @@
+package chess.engine.board;
+
+import chess.engine.pieces.Piece;
+
+/**
+ * Moves packed into one int, for move generation which must not allocate.
+ *
+ * Bits 0-5 hold the start tile, bits 6-11 the destination tile, bits 12-14 the move kind,
+ * bits 15-17 the promotion piece type ordinal (0 if none) and bits 18-21 the captured piece
+ * as bitboard index plus one (0 if none). The low twelve bits equal those of TranspositionTable.packMove.
+ * Value 0 is no move, since no move starts and ends on the same tile.
+ */
+public class MoveEncoding {
+    public static final int NO_MOVE = 0;
+
+    public static final int NORMAL = 0;
+    public static final int PAWN_JUMP = 1;
+    public static final int EN_PASSANT = 2;
+    public static final int CASTLE = 3;
+    public static final int PROMOTION = 4;
+
+    private static final int TO_SHIFT = 6;
+    private static final int KIND_SHIFT = 12;
+    private static final int PROMOTION_SHIFT = 15;
+    private static final int CAPTURED_SHIFT = 18;
+    private static final int TILE_MASK = 0x3F;
+    private static final int KIND_MASK = 0x7;
+    private static final int PROMOTION_MASK = 0x7;
+    private static final int CAPTURED_MASK = 0xF;
+
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+    private static final char[] PROMOTION_NAMES = {' ', 'n', 'b', 'r', 'q', ' '};
+
+    private MoveEncoding() {
+        throw new RuntimeException("Cannot create object of this class");
+    }
+
+    /**
+     * @param from - start tile
+     * @param to - destination tile
+     * @param kind - one of the move kind constants
+     * @param promotionType - ordinal of the promotion piece type, 0 if none
+     * @param capturedPiece - bitboard index of the captured piece, -1 if none
+     * @return encoded move
+     */
+    public static int encode(int from, int to, int kind, int promotionType, int capturedPiece) {
+        return from | to << TO_SHIFT | kind << KIND_SHIFT | promotionType << PROMOTION_SHIFT |
+               (capturedPiece + 1) << CAPTURED_SHIFT;
+    }
+
+    /**
+     * Converts a move object to its encoding
+     * @param move - move of a board
+     * @return encoded move
+     */
+    public static int encode(Move move) {
+        int kind = NORMAL;
+        int promotionType = 0;
+        if (move.getPromotionType() != null) {
+            kind = PROMOTION;
+            promotionType = move.getPromotionType().ordinal();
+        } else if (move.isCastlingMove())
+            kind = CASTLE;
+        else if (move instanceof Move.PawnEnPassantAttackMove)
+            kind = EN_PASSANT;
+        else if (move instanceof Move.PawnJumpMove)
+            kind = PAWN_JUMP;
+
+        Piece attackedPiece = move.getAttackedPiece();
+        int capturedPiece = attackedPiece == null ? -1 :
+                BoardUtils.pieceBitboardIndex(attackedPiece.getPieceType(), attackedPiece.getPieceAlliance());
+        return encode(move.getCurrentCoordinate(), move.getDestinationCoordinate(), kind, promotionType, capturedPiece);
+    }
+
+    /**
+     * Converts an encoded move back to the move object of a board
+     * @param board - board the move is made on
+     * @param move - encoded move
+     * @return legal move of the current player with the same tiles and promotion, or Move.NULL_MOVE
+     */
+    public static Move toMove(Board board, int move) {
+        Piece.PieceType promotionType = getKind(move) == PROMOTION ? PIECE_TYPES[getPromotionType(move)] : null;
+        return board.getCurrentPlayer().getLegalMove(getFrom(move), getTo(move), promotionType);
+    }
+
+    public static int getFrom(int move) {
+        return move & TILE_MASK;
+    }
+
+    public static int getTo(int move) {
+        return move >>> TO_SHIFT & TILE_MASK;
+    }
+
+    public static int getKind(int move) {
+        return move >>> KIND_SHIFT & KIND_MASK;
+    }
+
+    /**
+     * @return ordinal of the promotion piece type, 0 if the move is no promotion
+     */
+    public static int getPromotionType(int move) {
+        return move >>> PROMOTION_SHIFT & PROMOTION_MASK;
+    }
+
+    /**
+     * @return bitboard index of the captured piece, -1 if the move captures nothing
+     */
+    public static int getCapturedPiece(int move) {
+        return (move >>> CAPTURED_SHIFT & CAPTURED_MASK) - 1;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move >>> CAPTURED_SHIFT & CAPTURED_MASK) != 0;
+    }
+
+    /**
+     * @param move - encoded move
+     * @return move in coordinate notation, e.g. e2e4 or e7e8q
+     */
+    public static String toString(int move) {
+        String notation = BoardUtils.getPositionAtCoordinate(getFrom(move)) + BoardUtils.getPositionAtCoordinate(getTo(move));
+        return getKind(move) == PROMOTION ? notation + PROMOTION_NAMES[getPromotionType(move)] : notation;
+    }
+}
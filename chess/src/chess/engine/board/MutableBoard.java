@@ -0,0 +1,422 @@
+package chess.engine.board;
+
+import chess.engine.Alliance;
+import chess.engine.pieces.*;
+
+import java.util.Arrays;
+
+/**
+ * Mutable board for search.
+ *
+ * Unlike Board, which is rebuilt by every Move.execute(), this board changes its state in place with
+ * makeMove and restores it with unmakeMove from a preallocated undo stack, so a search node allocates nothing.
+ * Pieces are stored as bitboard indexes (see BoardUtils.pieceBitboardIndex) in a mailbox and in bitboards.
+ * Moves are generated as ints (see MoveEncoding) into caller-owned buffers, one buffer per ply is enough.
+ */
+public final class MutableBoard {
+    private static final int NO_PIECE = -1;
+    private static final int NO_EN_PASSANT = -1;
+    private static final int MAX_PLY = 1024;
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+    /** Buffer size enough for the moves of any position */
+    public static final int MAX_MOVES = 256;
+
+    private final int[] mailbox = new int[BoardUtils.NUM_TILES];
+    private final long[] pieceBitboards = new long[BoardUtils.NUM_PIECE_BITBOARDS];
+    private final long[] occupancies = new long[2];
+    private Alliance sideToMove;
+    private int castlingRights;
+    private int enPassantTile;
+    private long zobristKey;
+
+    // undo stack, one entry per made move
+    private final int[] undoMove = new int[MAX_PLY];
+    private final int[] undoCapturedPiece = new int[MAX_PLY];
+    private final int[] undoCastlingRights = new int[MAX_PLY];
+    private final int[] undoEnPassantTile = new int[MAX_PLY];
+    private final long[] undoZobristKey = new long[MAX_PLY];
+    private int ply;
+
+    /**
+     * Copies the position of an immutable board
+     * @param board - source board
+     */
+    public MutableBoard(Board board) {
+        setPosition(board);
+    }
+
+    /**
+     * Replaces the position by the one of an immutable board and empties the undo stack
+     * @param board - source board
+     */
+    public void setPosition(Board board) {
+        Arrays.fill(this.pieceBitboards, 0L);
+        Arrays.fill(this.occupancies, 0L);
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            Piece piece = board.getTile(i).getPiece();
+            this.mailbox[i] = NO_PIECE;
+            if (piece != null)
+                putPiece(i, BoardUtils.pieceBitboardIndex(piece.getPieceType(), piece.getPieceAlliance()));
+        }
+        this.sideToMove = board.getCurrentPlayer().getAlliance();
+        this.castlingRights = board.getCastlingRights();
+        this.enPassantTile = board.getEnPassantPawn() != null ?
+                board.getEnPassantPawn().getPiecePosition() - board.getEnPassantPawn().getPieceAlliance().getDirection() * BoardUtils.NUM_TILES_PER_ROW :
+                NO_EN_PASSANT;
+        this.zobristKey = board.getZobristKey();
+        this.ply = 0;
+    }
+
+    /**
+     * Applies the move in place and pushes everything needed to take it back on the undo stack
+     * @param move - move created for the position this board is in
+     */
+    public void makeMove(Move move) {
+        makeMove(MoveEncoding.encode(move));
+    }
+
+    /**
+     * Applies the move in place and pushes everything needed to take it back on the undo stack
+     * @param move - encoded move, see MoveEncoding
+     */
+    public void makeMove(int move) {
+        if (this.ply == MAX_PLY)
+            throw new RuntimeException("Undo stack overflow!");
+
+        int from = MoveEncoding.getFrom(move);
+        int to = MoveEncoding.getTo(move);
+        int kind = MoveEncoding.getKind(move);
+        int captureTile = kind == MoveEncoding.EN_PASSANT ? to - this.sideToMove.getDirection() * BoardUtils.NUM_TILES_PER_ROW : to;
+        int capturedPiece = this.mailbox[captureTile];
+
+        this.undoMove[this.ply] = move;
+        this.undoCapturedPiece[this.ply] = capturedPiece;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoEnPassantTile[this.ply] = this.enPassantTile;
+        this.undoZobristKey[this.ply] = this.zobristKey;
+
+        if (capturedPiece != NO_PIECE)
+            removePiece(captureTile);
+        int movedPiece = removePiece(from);
+        putPiece(to, kind == MoveEncoding.PROMOTION ? promotedPiece(movedPiece, move) : movedPiece);
+
+        if (kind == MoveEncoding.CASTLE)
+            putPiece(castleRookDestination(to), removePiece(castleRookStart(to)));
+
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights);
+        this.castlingRights &= BoardUtils.CASTLING_RIGHTS_MASKS[from] & BoardUtils.CASTLING_RIGHTS_MASKS[to];
+        this.zobristKey ^= Zobrist.castlingKey(this.castlingRights);
+
+        if (this.enPassantTile != NO_EN_PASSANT)
+            this.zobristKey ^= Zobrist.enPassantKey(this.enPassantTile);
+        this.enPassantTile = kind == MoveEncoding.PAWN_JUMP ? (from + to) / 2 : NO_EN_PASSANT;
+        if (this.enPassantTile != NO_EN_PASSANT)
+            this.zobristKey ^= Zobrist.enPassantKey(this.enPassantTile);
+
+        this.zobristKey ^= Zobrist.sideToMoveKey();
+        this.sideToMove = opposite(this.sideToMove);
+        this.ply++;
+    }
+
+    /**
+     * Takes back the last made move
+     */
+    public void unmakeMove() {
+        if (this.ply == 0)
+            throw new RuntimeException("No move to unmake!");
+
+        this.ply--;
+        this.sideToMove = opposite(this.sideToMove);
+        int move = this.undoMove[this.ply];
+        int from = MoveEncoding.getFrom(move);
+        int to = MoveEncoding.getTo(move);
+        int kind = MoveEncoding.getKind(move);
+
+        if (kind == MoveEncoding.CASTLE)
+            putPiece(castleRookStart(to), removePiece(castleRookDestination(to)));
+
+        int movedPiece = removePiece(to);
+        putPiece(from, kind == MoveEncoding.PROMOTION ?
+                BoardUtils.pieceBitboardIndex(Piece.PieceType.PAWN, this.sideToMove) : movedPiece);
+        if (this.undoCapturedPiece[this.ply] != NO_PIECE)
+            putPiece(kind == MoveEncoding.EN_PASSANT ? to - this.sideToMove.getDirection() * BoardUtils.NUM_TILES_PER_ROW : to,
+                     this.undoCapturedPiece[this.ply]);
+
+        this.castlingRights = this.undoCastlingRights[this.ply];
+        this.enPassantTile = this.undoEnPassantTile[this.ply];
+        this.zobristKey = this.undoZobristKey[this.ply];
+    }
+
+    /**
+     * Writes the legal moves of the side to move into a buffer, making and unmaking each candidate
+     * @param moves - buffer of at least MAX_MOVES entries, typically reused for every board of one ply
+     * @return number of moves written
+     */
+    public int generateLegalMoves(int[] moves) {
+        Alliance mover = this.sideToMove;
+        int count = generateMoves(moves);
+        int legalCount = 0;
+        for (int i = 0; i < count; i++) {
+            makeMove(moves[i]);
+            if (!isInCheck(mover))
+                moves[legalCount++] = moves[i];
+            unmakeMove();
+        }
+        return legalCount;
+    }
+
+    /**
+     * Writes the moves of the side to move into a buffer; they may leave the own king in check,
+     * except castle moves, which are only generated when the king is not in check and passes no attacked tile
+     * @param moves - buffer of at least MAX_MOVES entries
+     * @return number of moves written
+     */
+    public int generateMoves(int[] moves) {
+        Alliance us = this.sideToMove;
+        Alliance them = opposite(us);
+        long own = getOccupancy(us);
+        long opponent = getOccupancy(them);
+        long occupancy = own | opponent;
+        int count = generatePawnMoves(moves, 0, us, opponent, occupancy);
+
+        for (int pieceType = Piece.PieceType.KNIGHT.ordinal(); pieceType < BoardUtils.NUM_PIECE_TYPES; pieceType++)
+            for (long pieces = this.pieceBitboards[us.ordinal() * BoardUtils.NUM_PIECE_TYPES + pieceType]; pieces != 0; pieces &= pieces - 1) {
+                int from = Long.numberOfTrailingZeros(pieces);
+                for (long targets = getAttacks(PIECE_TYPES[pieceType], from, occupancy) & ~own; targets != 0; targets &= targets - 1) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    moves[count++] = MoveEncoding.encode(from, to, MoveEncoding.NORMAL, 0, this.mailbox[to]);
+                }
+            }
+
+        return generateCastleMoves(moves, count, us, occupancy);
+    }
+
+    private static long getAttacks(Piece.PieceType pieceType, int from, long occupancy) {
+        switch (pieceType) {
+            case KNIGHT:
+                return BoardUtils.KNIGHT_ATTACKS[from];
+            case BISHOP:
+                return MagicBitboards.getBishopAttacks(from, occupancy);
+            case ROOK:
+                return MagicBitboards.getRookAttacks(from, occupancy);
+            case QUEEN:
+                return MagicBitboards.getQueenAttacks(from, occupancy);
+            default:
+                return BoardUtils.KING_ATTACKS[from];
+        }
+    }
+
+    private int generatePawnMoves(int[] moves, int count, Alliance us, long opponent, long occupancy) {
+        int forward = us.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+        boolean[] startRank = us.isWhite() ? BoardUtils.SECOND_RANK : BoardUtils.SEVENTH_RANK;
+        boolean[] lastRank = us.isWhite() ? BoardUtils.EIGHTH_RANK : BoardUtils.FIRST_RANK;
+        long enPassantTarget = this.enPassantTile == NO_EN_PASSANT ? 0L : 1L << this.enPassantTile;
+
+        for (long pawns = this.pieceBitboards[BoardUtils.pieceBitboardIndex(Piece.PieceType.PAWN, us)]; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            int to = from + forward;
+            if ((occupancy & 1L << to) == 0) {
+                if (lastRank[to])
+                    count = addPromotions(moves, count, from, to, NO_PIECE);
+                else {
+                    moves[count++] = MoveEncoding.encode(from, to, MoveEncoding.NORMAL, 0, NO_PIECE);
+                    if (startRank[from] && (occupancy & 1L << (to + forward)) == 0)
+                        moves[count++] = MoveEncoding.encode(from, to + forward, MoveEncoding.PAWN_JUMP, 0, NO_PIECE);
+                }
+            }
+
+            long attacks = BoardUtils.PAWN_ATTACKS[us.ordinal()][from];
+            for (long targets = attacks & opponent; targets != 0; targets &= targets - 1) {
+                int target = Long.numberOfTrailingZeros(targets);
+                if (lastRank[target])
+                    count = addPromotions(moves, count, from, target, this.mailbox[target]);
+                else
+                    moves[count++] = MoveEncoding.encode(from, target, MoveEncoding.NORMAL, 0, this.mailbox[target]);
+            }
+            if ((attacks & enPassantTarget) != 0)
+                moves[count++] = MoveEncoding.encode(from, this.enPassantTile, MoveEncoding.EN_PASSANT, 0,
+                                                     this.mailbox[this.enPassantTile - forward]);
+        }
+        return count;
+    }
+
+    private static int addPromotions(int[] moves, int count, int from, int to, int capturedPiece) {
+        for (int pieceType = Piece.PieceType.QUEEN.ordinal(); pieceType >= Piece.PieceType.KNIGHT.ordinal(); pieceType--)
+            moves[count++] = MoveEncoding.encode(from, to, MoveEncoding.PROMOTION, pieceType, capturedPiece);
+        return count;
+    }
+
+    private int generateCastleMoves(int[] moves, int count, Alliance us, long occupancy) {
+        int kingSide = us.isWhite() ? BoardUtils.WHITE_KING_SIDE_CASTLE : BoardUtils.BLACK_KING_SIDE_CASTLE;
+        int queenSide = us.isWhite() ? BoardUtils.WHITE_QUEEN_SIDE_CASTLE : BoardUtils.BLACK_QUEEN_SIDE_CASTLE;
+        if ((this.castlingRights & (kingSide | queenSide)) == 0)
+            return count;
+
+        int kingTile = us.isWhite() ? 60 : 4;
+        Alliance them = opposite(us);
+        if (isTileAttacked(kingTile, them))
+            return count;
+
+        if ((this.castlingRights & kingSide) != 0 && (occupancy & (3L << (kingTile + 1))) == 0 &&
+                !isTileAttacked(kingTile + 1, them) && !isTileAttacked(kingTile + 2, them))
+            moves[count++] = MoveEncoding.encode(kingTile, kingTile + 2, MoveEncoding.CASTLE, 0, NO_PIECE);
+        if ((this.castlingRights & queenSide) != 0 && (occupancy & (7L << (kingTile - 3))) == 0 &&
+                !isTileAttacked(kingTile - 1, them) && !isTileAttacked(kingTile - 2, them))
+            moves[count++] = MoveEncoding.encode(kingTile, kingTile - 2, MoveEncoding.CASTLE, 0, NO_PIECE);
+        return count;
+    }
+
+    /**
+     * @param alliance - colour of the king
+     * @return true if the king of given alliance is attacked
+     */
+    public boolean isInCheck(Alliance alliance) {
+        long king = this.pieceBitboards[BoardUtils.pieceBitboardIndex(Piece.PieceType.KING, alliance)];
+        return king != 0 && isTileAttacked(Long.numberOfTrailingZeros(king), opposite(alliance));
+    }
+
+    /**
+     * @param tileCoordinate - checked tile
+     * @param attacker - colour of attacking pieces
+     * @return true if any piece of the attacker attacks the tile
+     */
+    public boolean isTileAttacked(int tileCoordinate, Alliance attacker) {
+        long occupancy = getOccupancy();
+        int firstIndex = attacker.ordinal() * BoardUtils.NUM_PIECE_TYPES;
+        long queens = this.pieceBitboards[firstIndex + Piece.PieceType.QUEEN.ordinal()];
+
+        return (BoardUtils.PAWN_ATTACKS[opposite(attacker).ordinal()][tileCoordinate] & this.pieceBitboards[firstIndex + Piece.PieceType.PAWN.ordinal()]) != 0 ||
+               (BoardUtils.KNIGHT_ATTACKS[tileCoordinate] & this.pieceBitboards[firstIndex + Piece.PieceType.KNIGHT.ordinal()]) != 0 ||
+               (BoardUtils.KING_ATTACKS[tileCoordinate] & this.pieceBitboards[firstIndex + Piece.PieceType.KING.ordinal()]) != 0 ||
+               (MagicBitboards.getRookAttacks(tileCoordinate, occupancy) & (this.pieceBitboards[firstIndex + Piece.PieceType.ROOK.ordinal()] | queens)) != 0 ||
+               (MagicBitboards.getBishopAttacks(tileCoordinate, occupancy) & (this.pieceBitboards[firstIndex + Piece.PieceType.BISHOP.ordinal()] | queens)) != 0;
+    }
+
+    /**
+     * Builds an immutable board of the current position
+     * @return new board
+     */
+    public Board toBoard() {
+        Board.Builder builder = new Board.Builder();
+
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            int piece = this.mailbox[i];
+            if (piece == NO_PIECE)
+                continue;
+
+            Piece.PieceType pieceType = PIECE_TYPES[piece % BoardUtils.NUM_PIECE_TYPES];
+            Alliance alliance = piece < BoardUtils.NUM_PIECE_TYPES ? Alliance.WHITE : Alliance.BLACK;
+            Piece created = Piece.createPiece(pieceType, alliance, i, isFirstMove(pieceType, alliance, i));
+            builder.setPiece(created);
+
+            if (this.enPassantTile != NO_EN_PASSANT && pieceType == Piece.PieceType.PAWN &&
+                    i == this.enPassantTile + alliance.getDirection() * BoardUtils.NUM_TILES_PER_ROW)
+                builder.setEnPassantPawn((Pawn) created);
+        }
+        builder.setMoveMaker(this.sideToMove);
+
+        return builder.build();
+    }
+
+    public Alliance getSideToMove() {
+        return this.sideToMove;
+    }
+
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+
+    /**
+     * @return tile behind the pawn which has just jumped, or -1
+     */
+    public int getEnPassantTile() {
+        return this.enPassantTile;
+    }
+
+    /**
+     * @return 64-bit Zobrist key of the position, equal to the key of the same position as a Board
+     */
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+
+    /**
+     * @return number of moves on the undo stack
+     */
+    public int getPly() {
+        return this.ply;
+    }
+
+    /**
+     * @param tileCoordinate - tile on the board
+     * @return bitboard index of the piece on the tile, or -1 for an empty tile
+     */
+    public int getPieceAt(int tileCoordinate) {
+        return this.mailbox[tileCoordinate];
+    }
+
+    public long getPieceBitboard(Piece.PieceType pieceType, Alliance alliance) {
+        return this.pieceBitboards[BoardUtils.pieceBitboardIndex(pieceType, alliance)];
+    }
+
+    public long getOccupancy(Alliance alliance) {
+        return this.occupancies[alliance.ordinal()];
+    }
+
+    public long getOccupancy() {
+        return this.occupancies[0] | this.occupancies[1];
+    }
+
+    private void putPiece(int tileCoordinate, int piece) {
+        long tile = 1L << tileCoordinate;
+        this.mailbox[tileCoordinate] = piece;
+        this.zobristKey ^= Zobrist.pieceKey(piece, tileCoordinate);
+        this.pieceBitboards[piece] |= tile;
+        this.occupancies[piece / BoardUtils.NUM_PIECE_TYPES] |= tile;
+    }
+
+    private int removePiece(int tileCoordinate) {
+        long tile = 1L << tileCoordinate;
+        int piece = this.mailbox[tileCoordinate];
+        this.mailbox[tileCoordinate] = NO_PIECE;
+        this.zobristKey ^= Zobrist.pieceKey(piece, tileCoordinate);
+        this.pieceBitboards[piece] &= ~tile;
+        this.occupancies[piece / BoardUtils.NUM_PIECE_TYPES] &= ~tile;
+        return piece;
+    }
+
+    private boolean isFirstMove(Piece.PieceType pieceType, Alliance alliance, int tileCoordinate) {
+        switch (pieceType) {
+            case PAWN:
+                return alliance.isWhite() ? BoardUtils.SECOND_RANK[tileCoordinate] : BoardUtils.SEVENTH_RANK[tileCoordinate];
+            case KING:
+                return (this.castlingRights & (alliance.isWhite() ?
+                        BoardUtils.WHITE_KING_SIDE_CASTLE | BoardUtils.WHITE_QUEEN_SIDE_CASTLE :
+                        BoardUtils.BLACK_KING_SIDE_CASTLE | BoardUtils.BLACK_QUEEN_SIDE_CASTLE)) != 0;
+            case ROOK:
+                return (this.castlingRights & ~BoardUtils.CASTLING_RIGHTS_MASKS[tileCoordinate]) != 0;
+            default:
+                return false;
+        }
+    }
+
+    private int promotedPiece(int pawn, int move) {
+        return pawn - Piece.PieceType.PAWN.ordinal() + MoveEncoding.getPromotionType(move);
+    }
+
+    /**
+     * @param kingDestination - destination of the castling king
+     * @return start tile of the castle rook
+     */
+    private static int castleRookStart(int kingDestination) {
+        return kingDestination % BoardUtils.NUM_TILES_PER_ROW == 6 ? kingDestination + 1 : kingDestination - 2;
+    }
+
+    private static int castleRookDestination(int kingDestination) {
+        return kingDestination % BoardUtils.NUM_TILES_PER_ROW == 6 ? kingDestination - 1 : kingDestination + 1;
+    }
+
+    private static Alliance opposite(Alliance alliance) {
+        return alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+    }
+}
@@ -1,31 +1,56 @@
 package chess.engine.board;
 
+import chess.engine.Alliance;
 import chess.engine.pieces.Piece;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
-
 /**
  *  Chess board consists of 64 tiles
  */
 public abstract class Tile {
-    private static final Map<Integer, EmptyTile> EMPTY_TILES_CACHE = createAllPossibleEmptyTiles();
+    private static final EmptyTile[] EMPTY_TILES_CACHE = createAllPossibleEmptyTiles();
+    private static final OccupiedTile[] OCCUPIED_TILES_CACHE = createAllPossibleOccupiedTiles();
 
     /**
-     * @return a map, which consists of 64 empty tiles
+     * @return an array, which consists of 64 empty tiles
      */
-    private static Map<Integer, EmptyTile> createAllPossibleEmptyTiles() {
-        final Map<Integer, EmptyTile> emptyTileMap = new HashMap<>();
+    private static EmptyTile[] createAllPossibleEmptyTiles() {
+        final EmptyTile[] emptyTiles = new EmptyTile[BoardUtils.NUM_TILES];
 
         for (int i = 0; i < BoardUtils.NUM_TILES; i++)
-            emptyTileMap.put(i, new EmptyTile(i));
+            emptyTiles[i] = new EmptyTile(i);
+
+        return emptyTiles;
+    }
 
-        return Collections.unmodifiableMap(emptyTileMap); // ImmutableTile
+    /**
+     * @return an array of tiles holding every shared piece instance, indexed by Piece.getFlyweightIndex
+     */
+    private static OccupiedTile[] createAllPossibleOccupiedTiles() {
+        final OccupiedTile[] occupiedTiles = new OccupiedTile[Piece.NUM_FLYWEIGHTS];
+
+        for (Piece.PieceType pieceType : Piece.PieceType.values())
+            for (Alliance alliance : Alliance.values())
+                for (int i = 0; i < BoardUtils.NUM_TILES; i++)
+                    for (boolean isFirstMove : new boolean[] {false, true}) {
+                        Piece piece = Piece.createPiece(pieceType, alliance, i, isFirstMove);
+                        occupiedTiles[piece.getFlyweightIndex()] = new OccupiedTile(i, piece);
+                    }
+
+        return occupiedTiles;
     }
 
+    /**
+     * Tiles are shared between boards, unless the piece is not a shared instance of Piece.createPiece
+     * @param tileCoordinate - coordinate of the tile
+     * @param piece - piece on the tile, or null
+     * @return tile
+     */
     public static Tile createTile(int tileCoordinate, Piece piece) {
-        return piece != null ? new OccupiedTile(tileCoordinate, piece) : EMPTY_TILES_CACHE.get(tileCoordinate);
+        if (piece == null)
+            return EMPTY_TILES_CACHE[tileCoordinate];
+
+        OccupiedTile tile = OCCUPIED_TILES_CACHE[piece.getFlyweightIndex()];
+        return tile.getPiece() == piece && tile.getTileCoordinate() == tileCoordinate ? tile : new OccupiedTile(tileCoordinate, piece);
     }
 
     private final int tileCoordinate;
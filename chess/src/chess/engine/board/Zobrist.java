@@ -0,0 +1,102 @@
+package chess.engine.board;
+
+import chess.engine.pieces.Piece;
+
+import java.util.Random;
+
+/**
+ * Random keys for Zobrist hashing of positions.
+ *
+ * A position key is the XOR of one key per piece on its tile, the side to move, the castling rights and
+ * the file of the en passant pawn. Every move changes only a few of these terms, so keys are updated
+ * incrementally by Move.execute() and MutableBoard.makeMove.
+ */
+public final class Zobrist {
+    private static final Random RANDOM = new Random(0x5A0B15L);
+
+    private static final long[][] PIECE_KEYS = initPieceKeys();
+    private static final long[] CASTLING_KEYS = initKeys(16);
+    private static final long[] EN_PASSANT_KEYS = initKeys(BoardUtils.NUM_TILES_PER_ROW);
+    private static final long BLACK_TO_MOVE_KEY = RANDOM.nextLong();
+
+    private Zobrist() {
+        throw new RuntimeException("Cannot create object of this class");
+    }
+
+    /**
+     * @param pieceIndex - bitboard index of the piece (see BoardUtils.pieceBitboardIndex)
+     * @param tileCoordinate - tile of the piece
+     * @return key of the piece on the tile
+     */
+    public static long pieceKey(int pieceIndex, int tileCoordinate) {
+        return PIECE_KEYS[pieceIndex][tileCoordinate];
+    }
+
+    /**
+     * @param piece - piece on the board
+     * @param tileCoordinate - tile of the piece
+     * @return key of the piece on the tile
+     */
+    public static long pieceKey(Piece piece, int tileCoordinate) {
+        return PIECE_KEYS[BoardUtils.pieceBitboardIndex(piece.getPieceType(), piece.getPieceAlliance())][tileCoordinate];
+    }
+
+    /**
+     * @param castlingRights - set of BoardUtils castle flags
+     * @return key of the castling rights
+     */
+    public static long castlingKey(int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+
+    /**
+     * @param tileCoordinate - tile of the pawn which has just jumped
+     * @return key of the en passant file
+     */
+    public static long enPassantKey(int tileCoordinate) {
+        return EN_PASSANT_KEYS[tileCoordinate % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    /**
+     * @return key toggled on every move, present when black is to move
+     */
+    public static long sideToMoveKey() {
+        return BLACK_TO_MOVE_KEY;
+    }
+
+    /**
+     * Calculates the key of a board from scratch
+     * @param board - game board
+     * @return position key
+     */
+    static long calculateKey(Board board) {
+        long key = 0L;
+
+        for (Piece piece : board.getWhitePieces())
+            key ^= pieceKey(piece, piece.getPiecePosition());
+        for (Piece piece : board.getBlackPieces())
+            key ^= pieceKey(piece, piece.getPiecePosition());
+
+        key ^= castlingKey(board.getCastlingRights());
+        if (board.getEnPassantPawn() != null)
+            key ^= enPassantKey(board.getEnPassantPawn().getPiecePosition());
+        if (board.getCurrentPlayer().getAlliance().isBlack())
+            key ^= sideToMoveKey();
+
+        return key;
+    }
+
+    private static long[][] initPieceKeys() {
+        long[][] keys = new long[BoardUtils.NUM_PIECE_BITBOARDS][];
+        for (int i = 0; i < keys.length; i++)
+            keys[i] = initKeys(BoardUtils.NUM_TILES);
+        return keys;
+    }
+
+    private static long[] initKeys(int size) {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++)
+            keys[i] = RANDOM.nextLong();
+        return keys;
+    }
+}
@@ -0,0 +1,174 @@
+package chess.engine.book;
+
+import chess.engine.board.Board;
+import chess.engine.board.BoardUtils;
+import chess.engine.board.Move;
+import chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Opening book in the Polyglot .bin format, memory-mapped.
+ *
+ * The file is a sequence of 16-byte big-endian entries sorted by position key: key (8 bytes), move (2),
+ * weight (2) and learn data (4). The entries of a position are found by binary search on the key, and every
+ * book move is looked up among the legal moves of the board, so a key collision can never return an illegal move.
+ */
+public class PolyglotBook {
+    private static final int ENTRY_SIZE = 16;
+    private static final int ENTRIES_PER_SEGMENT = 1 << 26;
+    private static final Piece.PieceType[] PROMOTION_TYPES =
+            {null, Piece.PieceType.KNIGHT, Piece.PieceType.BISHOP, Piece.PieceType.ROOK, Piece.PieceType.QUEEN};
+
+    private final ByteBuffer[] segments;
+    private final long numEntries;
+
+    /**
+     * Book move of a position with its weight
+     */
+    public static final class Entry {
+        private final Move move;
+        private final int weight;
+
+        Entry(Move move, int weight) {
+            this.move = move;
+            this.weight = weight;
+        }
+
+        public Move getMove() {
+            return this.move;
+        }
+
+        public int getWeight() {
+            return this.weight;
+        }
+
+        @Override
+        public String toString() {
+            return this.move + " " + this.weight;
+        }
+    }
+
+    /**
+     * @param path - Polyglot book file
+     * @throws IOException if the file cannot be mapped
+     */
+    public PolyglotBook(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.numEntries = channel.size() / ENTRY_SIZE;
+            int numSegments = (int) ((this.numEntries + ENTRIES_PER_SEGMENT - 1) / ENTRIES_PER_SEGMENT);
+            this.segments = new ByteBuffer[numSegments];
+            for (int i = 0; i < numSegments; i++) {
+                long firstEntry = (long) i * ENTRIES_PER_SEGMENT;
+                long segmentEntries = Math.min(ENTRIES_PER_SEGMENT, this.numEntries - firstEntry);
+                this.segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, firstEntry * ENTRY_SIZE, segmentEntries * ENTRY_SIZE);
+            }
+        }
+    }
+
+    /**
+     * @param board - game board
+     * @return legal book moves of the current player with their weights, empty if the position is not in the book
+     */
+    public List<Entry> getEntries(Board board) {
+        long key = PolyglotKeys.calculateKey(board);
+
+        // binary search for the first entry of the key, keys compare as unsigned numbers
+        long low = 0;
+        long high = this.numEntries;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(getKey(middle), key) < 0)
+                low = middle + 1;
+            else
+                high = middle;
+        }
+
+        List<Entry> entries = new ArrayList<>();
+        for (long index = low; index < this.numEntries && getKey(index) == key; index++) {
+            ByteBuffer segment = this.segments[(int) (index / ENTRIES_PER_SEGMENT)];
+            int offset = (int) (index % ENTRIES_PER_SEGMENT) * ENTRY_SIZE;
+            Move move = toMove(board, segment.getShort(offset + 8) & 0xFFFF);
+            if (move != Move.NULL_MOVE)
+                entries.add(new Entry(move, segment.getShort(offset + 10) & 0xFFFF));
+        }
+        return Collections.unmodifiableList(entries);
+    }
+
+    /**
+     * @param board - game board
+     * @return book move with the highest weight, or Move.NULL_MOVE if the position is not in the book
+     */
+    public Move getBestMove(Board board) {
+        Entry bestEntry = null;
+        for (Entry entry : getEntries(board))
+            if (entry.weight > 0 && (bestEntry == null || entry.weight > bestEntry.weight))
+                bestEntry = entry;
+        return bestEntry == null ? Move.NULL_MOVE : bestEntry.move;
+    }
+
+    /**
+     * Chooses a book move with probability proportional to its weight
+     * @param board - game board
+     * @param random - random number generator
+     * @return book move, or Move.NULL_MOVE if the position is not in the book
+     */
+    public Move getWeightedRandomMove(Board board, Random random) {
+        List<Entry> entries = getEntries(board);
+        int totalWeight = 0;
+        for (Entry entry : entries)
+            totalWeight += entry.weight;
+        if (totalWeight == 0)
+            return Move.NULL_MOVE;
+
+        int choice = random.nextInt(totalWeight);
+        for (Entry entry : entries) {
+            choice -= entry.weight;
+            if (choice < 0)
+                return entry.move;
+        }
+        throw new IllegalStateException("Weights changed during selection");
+    }
+
+    public long getNumEntries() {
+        return this.numEntries;
+    }
+
+    private long getKey(long index) {
+        return this.segments[(int) (index / ENTRIES_PER_SEGMENT)].getLong((int) (index % ENTRIES_PER_SEGMENT) * ENTRY_SIZE);
+    }
+
+    /**
+     * Polyglot moves hold the destination file in bits 0-2, its row in bits 3-5, the start file in bits 6-8,
+     * its row in bits 9-11 and the promotion piece in bits 12-14. Castling is written as the king capturing its rook
+     * @return legal move of the current player, or Move.NULL_MOVE
+     */
+    private static Move toMove(Board board, int polyglotMove) {
+        int destinationCoordinate = tileOf(polyglotMove & 0x7, polyglotMove >>> 3 & 0x7);
+        int currentCoordinate = tileOf(polyglotMove >>> 6 & 0x7, polyglotMove >>> 9 & 0x7);
+        int promotion = polyglotMove >>> 12 & 0x7;
+        if (promotion >= PROMOTION_TYPES.length)
+            return Move.NULL_MOVE;
+
+        Piece movedPiece = board.getTile(currentCoordinate).getPiece();
+        if (movedPiece != null && movedPiece.getPieceType() == Piece.PieceType.KING) {
+            Piece destinationPiece = board.getTile(destinationCoordinate).getPiece();
+            if (destinationPiece != null && destinationPiece.getPieceType() == Piece.PieceType.ROOK &&
+                    destinationPiece.getPieceAlliance() == movedPiece.getPieceAlliance())
+                destinationCoordinate = currentCoordinate + (destinationCoordinate > currentCoordinate ? 2 : -2);
+        }
+        return board.getCurrentPlayer().getLegalMove(currentCoordinate, destinationCoordinate, PROMOTION_TYPES[promotion]);
+    }
+
+    private static int tileOf(int file, int row) {
+        return (BoardUtils.NUM_TILES_PER_ROW - 1 - row) * BoardUtils.NUM_TILES_PER_ROW + file;
+    }
+}
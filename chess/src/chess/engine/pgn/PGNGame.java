@@ -0,0 +1,133 @@
+package chess.engine.pgn;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.player.MoveStatus;
+import chess.engine.player.MoveTransition;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * One game read from PGN: its tag pairs and its moves, resolved against the boards they are made on.
+ *
+ * Iterating over the game gives every move together with the board after it. If the game holds a move which
+ * is not legal, its moves end before that move. If the game cannot be read, it is invalid and holds the error
+ * together with the moves read before it.
+ */
+public class PGNGame implements Iterable<MoveTransition> {
+    private final Map<String, String> tags;
+    private final Board startBoard;
+    private final List<Move> moves;
+    private final Board finalBoard;
+    private final String result;
+    private final String illegalMove;
+    private final String error;
+
+    /**
+     * @param tags - tag pairs of the game
+     * @param startBoard - board before the first move, or null if it cannot be set up
+     * @param moves - moves of the game, each one made on the board left by the previous one
+     * @param finalBoard - board after the last move, or null if there is no start board
+     * @param result - game termination marker: 1-0, 0-1, 1/2-1/2 or *
+     * @param illegalMove - move in SAN the game stopped at because it is not legal, or null
+     * @param error - reason why the game cannot be read, or null
+     */
+    PGNGame(Map<String, String> tags,
+            Board startBoard,
+            List<Move> moves,
+            Board finalBoard,
+            String result,
+            String illegalMove,
+            String error) {
+        this.tags = Collections.unmodifiableMap(tags);
+        this.startBoard = startBoard;
+        this.moves = Collections.unmodifiableList(moves);
+        this.finalBoard = finalBoard;
+        this.result = result;
+        this.illegalMove = illegalMove;
+        this.error = error;
+    }
+
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+
+    /**
+     * @param name - tag name, e.g. White or Event
+     * @return tag value, or null if the game has no such tag
+     */
+    public String getTag(String name) {
+        return this.tags.get(name);
+    }
+
+    public Board getStartBoard() {
+        return this.startBoard;
+    }
+
+    public List<Move> getMoves() {
+        return this.moves;
+    }
+
+    public Board getFinalBoard() {
+        return this.finalBoard;
+    }
+
+    public String getResult() {
+        return this.result;
+    }
+
+    /**
+     * @return move in SAN the game stopped at because it is not legal on the final board, or null
+     */
+    public String getIllegalMove() {
+        return this.illegalMove;
+    }
+
+    public boolean isLegal() {
+        return this.illegalMove == null;
+    }
+
+    /**
+     * @return reason why the game cannot be read, e.g. a bad FEN tag, or null
+     */
+    public String getError() {
+        return this.error;
+    }
+
+    public boolean isValid() {
+        return this.error == null;
+    }
+
+    /**
+     * @return transitions of the game in order, each holding a move and the board after it
+     */
+    @Override
+    public Iterator<MoveTransition> iterator() {
+        return new Iterator<MoveTransition>() {
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return this.index < moves.size();
+            }
+
+            @Override
+            public MoveTransition next() {
+                if (!hasNext())
+                    throw new NoSuchElementException();
+                Move move = moves.get(this.index++);
+                Board transitionBoard = this.index < moves.size() ? moves.get(this.index).getBoard() : finalBoard;
+                return new MoveTransition(move, MoveStatus.DONE, transitionBoard);
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return this.tags.toString() + " " + this.moves.size() + " moves " + this.result;
+    }
+}
@@ -0,0 +1,348 @@
+package chess.engine.pgn;
+
+import chess.engine.board.Board;
+import chess.engine.board.FenUtilities;
+import chess.engine.board.Move;
+import chess.engine.player.MoveTransition;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming reader of games in Portable Game Notation.
+ *
+ * Files are memory-mapped in windows of MAPPING_WINDOW_SIZE bytes, so archives larger than 2 GB can be read
+ * and only the window in use has to be in memory. The movetext is read byte by byte: move numbers, comments,
+ * variations and NAGs are skipped, and every move token is copied into one reused buffer and resolved by
+ * SanUtilities against the board of the game, without creating strings. Resolved moves are made with
+ * Player.makeMove. A game holding a move which is not legal ends at that move and keeps it as its illegal move,
+ * the rest of its movetext is skipped. A game which cannot be read, e.g. because of a bad FEN tag or an overlong
+ * token, is skipped up to the next tag section and returned as an invalid game holding the error.
+ *
+ * Usage:
+ *     try (PGNReader reader = new PGNReader(path)) {
+ *         while (reader.hasNext())
+ *             for (MoveTransition transition : reader.next())
+ *                 ...
+ *     }
+ */
+public class PGNReader implements Iterator<PGNGame>, Closeable {
+    private static final long MAPPING_WINDOW_SIZE = 1L << 28;
+    private static final int MAX_TOKEN_LENGTH = 256;
+    private static final int EOF = -1;
+
+    private final FileChannel channel;
+    private final long size;
+    private ByteBuffer window;
+    private long windowStart;
+    private int pushedBack = EOF;
+
+    private final byte[] token = new byte[MAX_TOKEN_LENGTH];
+    private byte[] tagValue = new byte[MAX_TOKEN_LENGTH];
+    private int gameNumber;
+    private PGNGame nextGame;
+
+    /**
+     * @param path - PGN file
+     * @throws IOException if the file cannot be opened
+     */
+    public PGNReader(Path path) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = this.channel.size();
+        map(0);
+        skipByteOrderMark();
+    }
+
+    /**
+     * @param buffer - PGN text from the buffer's position to its limit
+     */
+    public PGNReader(ByteBuffer buffer) {
+        this.channel = null;
+        this.window = buffer.slice();
+        this.size = this.window.remaining();
+        this.windowStart = 0;
+        skipByteOrderMark();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (this.nextGame == null) {
+            try {
+                this.nextGame = readGame();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return this.nextGame != null;
+    }
+
+    /**
+     * @return next game of the file
+     */
+    @Override
+    public PGNGame next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+        PGNGame game = this.nextGame;
+        this.nextGame = null;
+        return game;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (this.channel != null)
+            this.channel.close();
+    }
+
+    /**
+     * Reads tag pairs and movetext up to the game termination marker, the next tag section or the end of file
+     * @return the game, or null if nothing but whitespace is left
+     */
+    private PGNGame readGame() throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        Board startBoard = null;
+        Board board = null;
+        List<Move> moves = new ArrayList<>();
+        String result = "*";
+        String illegalMove = null;
+
+        try {
+            for (int symbol = skipWhitespace(); symbol != EOF; symbol = skipWhitespace()) {
+                if (symbol == '[') {
+                    if (board != null) {
+                        unread(symbol); // the next game starts, this one has no termination marker
+                        break;
+                    }
+                    readTag(tags);
+                    continue;
+                }
+                if (board == null) {
+                    startBoard = createStartBoard(tags);
+                    board = startBoard;
+                }
+
+                if (symbol == '{') {
+                    skipPast('}');
+                    continue;
+                }
+                if (symbol == ';' || symbol == '%') {
+                    skipPast('\n');
+                    continue;
+                }
+                if (symbol == '(') {
+                    skipVariation();
+                    continue;
+                }
+                if (symbol == ')')
+                    continue;
+
+                int length = readToken(symbol);
+                if (symbol == '$')
+                    continue;
+
+                // a move number may be written together with the move, e.g. 12.Nf3 or 12...Nf3
+                int start = 0;
+                while (start < length && this.token[start] >= '0' && this.token[start] <= '9')
+                    start++;
+                if (start > 0 && start < length && this.token[start] == '.') {
+                    while (start < length && this.token[start] == '.')
+                        start++;
+                } else {
+                    start = 0;
+                }
+                if (start == length)
+                    continue;
+
+                if (isResult(start, length)) {
+                    result = new String(this.token, start, length - start, StandardCharsets.US_ASCII);
+                    break;
+                }
+
+                if (illegalMove != null)
+                    continue;
+                Move move = SanUtilities.resolveMove(board, this.token, start, length - start);
+                MoveTransition transition = move == Move.NULL_MOVE ? null : board.getCurrentPlayer().makeMove(move);
+                if (transition == null || !transition.getMoveStatus().isDone()) {
+                    illegalMove = new String(this.token, start, length - start, StandardCharsets.US_ASCII);
+                    continue;
+                }
+                moves.add(move);
+                board = transition.getTransitionBoard();
+            }
+
+            if (board == null) {
+                if (tags.isEmpty())
+                    return null;
+                startBoard = createStartBoard(tags);
+                board = startBoard;
+            }
+        } catch (RuntimeException e) {
+            skipGame();
+            this.gameNumber++;
+            return new PGNGame(tags, startBoard, moves, board, result, illegalMove, e.getMessage());
+        }
+        this.gameNumber++;
+        return new PGNGame(tags, startBoard, moves, board, result, illegalMove, null);
+    }
+
+    private static Board createStartBoard(Map<String, String> tags) {
+        String fen = tags.get("FEN");
+        return fen != null ? FenUtilities.createGameFromFEN(fen) : Board.createStandartdBoard();
+    }
+
+    /**
+     * Reads a tag pair like [White "Kasparov, Garry"] after its opening bracket
+     */
+    private void readTag(Map<String, String> tags) throws IOException {
+        StringBuilder name = new StringBuilder();
+        int symbol = skipWhitespace();
+        for (; symbol != EOF && symbol > ' ' && symbol != '"' && symbol != ']'; symbol = read())
+            name.append((char) symbol);
+        while (symbol != EOF && symbol != '"' && symbol != ']')
+            symbol = read();
+
+        int length = 0;
+        if (symbol == '"') {
+            for (symbol = read(); symbol != EOF && symbol != '"'; symbol = read()) {
+                if (symbol == '\\')
+                    symbol = read();
+                if (length == this.tagValue.length)
+                    this.tagValue = Arrays.copyOf(this.tagValue, 2 * length);
+                this.tagValue[length++] = (byte) symbol;
+            }
+            skipPast(']');
+        }
+        tags.put(name.toString(), new String(this.tagValue, 0, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Copies the token starting with the given byte into the token buffer, up to whitespace or a delimiter
+     * @return length of the token
+     */
+    private int readToken(int symbol) throws IOException {
+        int length = 0;
+        do {
+            if (length == MAX_TOKEN_LENGTH)
+                throw new IllegalArgumentException("Token too long in game " + (this.gameNumber + 1));
+            this.token[length++] = (byte) symbol;
+            symbol = read();
+        } while (symbol > ' ' && !isDelimiter(symbol));
+        if (symbol != EOF)
+            unread(symbol);
+        return length;
+    }
+
+    private boolean isResult(int start, int length) {
+        return matchesToken("1-0", start, length) || matchesToken("0-1", start, length) ||
+               matchesToken("1/2-1/2", start, length) || matchesToken("*", start, length);
+    }
+
+    private boolean matchesToken(String text, int start, int length) {
+        if (length - start != text.length())
+            return false;
+        for (int i = 0; i < text.length(); i++)
+            if (this.token[start + i] != text.charAt(i))
+                return false;
+        return true;
+    }
+
+    private static boolean isDelimiter(int symbol) {
+        switch (symbol) {
+            case '{': case '}': case '(': case ')': case '[': case ']': case ';': case '$':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Skips the rest of the movetext of a game which cannot be read, up to the next tag section
+     */
+    private void skipGame() throws IOException {
+        for (int symbol = skipWhitespace(); symbol != EOF; symbol = skipWhitespace()) {
+            if (symbol == '[') {
+                unread(symbol);
+                return;
+            }
+            if (symbol == '{')
+                skipPast('}');
+            else if (symbol == ';' || symbol == '%')
+                skipPast('\n');
+        }
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        for (int symbol = read(); symbol != EOF && depth > 0; symbol = depth > 0 ? read() : EOF) {
+            if (symbol == '(')
+                depth++;
+            else if (symbol == ')')
+                depth--;
+            else if (symbol == '{')
+                skipPast('}');
+            else if (symbol == ';')
+                skipPast('\n');
+        }
+    }
+
+    private void skipPast(int end) throws IOException {
+        int symbol;
+        do {
+            symbol = read();
+        } while (symbol != EOF && symbol != end);
+    }
+
+    private int skipWhitespace() throws IOException {
+        int symbol;
+        do {
+            symbol = read();
+        } while (symbol != EOF && symbol <= ' ');
+        return symbol;
+    }
+
+    private void skipByteOrderMark() {
+        if (this.window.remaining() >= 3 && (this.window.get(0) & 0xFF) == 0xEF &&
+                (this.window.get(1) & 0xFF) == 0xBB && (this.window.get(2) & 0xFF) == 0xBF)
+            this.window.position(3);
+    }
+
+    /**
+     * @return next byte of the input, or EOF
+     */
+    private int read() throws IOException {
+        if (this.pushedBack != EOF) {
+            int symbol = this.pushedBack;
+            this.pushedBack = EOF;
+            return symbol;
+        }
+        if (!this.window.hasRemaining()) {
+            long position = this.windowStart + this.window.limit();
+            if (this.channel == null || position >= this.size)
+                return EOF;
+            map(position);
+        }
+        return this.window.get() & 0xFF;
+    }
+
+    private void unread(int symbol) {
+        this.pushedBack = symbol;
+    }
+
+    private void map(long position) throws IOException {
+        this.windowStart = position;
+        this.window = this.channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(MAPPING_WINDOW_SIZE, this.size - position));
+    }
+}
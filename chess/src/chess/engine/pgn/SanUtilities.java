@@ -0,0 +1,151 @@
+package chess.engine.pgn;
+
+import chess.engine.Alliance;
+import chess.engine.board.Board;
+import chess.engine.board.BoardUtils;
+import chess.engine.board.Move;
+import chess.engine.pieces.Piece;
+import chess.engine.player.Player;
+
+/**
+ * Utils for resolving moves in Standard Algebraic Notation (e4, Nbd7, exd8=Q, O-O-O, ...) against a board.
+ *
+ * The notation is read from a byte array, so a reader can pass its token buffer without creating strings.
+ * Candidate pieces come from the piece bitboard of the moving type, and every candidate is looked up
+ * among the legal moves of the player by its start and destination tile.
+ */
+public class SanUtilities {
+    private static final int NO_FILE = -1;
+    private static final int NO_RANK = -1;
+
+    private SanUtilities() {
+        throw new RuntimeException("Cannot create object of this class");
+    }
+
+    /**
+     * @param board - board the move is made on
+     * @param san - move in SAN
+     * @return legal move of the current player, or Move.NULL_MOVE if the notation matches no legal move or several
+     */
+    public static Move resolveMove(Board board, CharSequence san) {
+        byte[] bytes = new byte[san.length()];
+        for (int i = 0; i < bytes.length; i++)
+            bytes[i] = (byte) san.charAt(i);
+        return resolveMove(board, bytes, 0, bytes.length);
+    }
+
+    /**
+     * Check, mate and annotation suffixes (+, #, !, ?) are ignored, castling may be written with zeros
+     * @param board - board the move is made on
+     * @param san - US-ASCII bytes holding the move
+     * @param offset - index of the first byte of the move
+     * @param length - number of bytes of the move
+     * @return legal move of the current player, or Move.NULL_MOVE if the notation matches no legal move or several
+     */
+    public static Move resolveMove(Board board, byte[] san, int offset, int length) {
+        int end = offset + length;
+        while (end > offset && isSuffix(san[end - 1]))
+            end--;
+        if (end - offset < 2)
+            return Move.NULL_MOVE;
+
+        Player player = board.getCurrentPlayer();
+        if (san[offset] == 'O' || san[offset] == '0')
+            return resolveCastle(player, san, offset, end);
+
+        Piece.PieceType promotionType = pieceTypeOf(san[end - 1]);
+        if (promotionType != null) {
+            end--;
+            if (san[end - 1] == '=')
+                end--;
+        }
+        if (end - offset < 2)
+            return Move.NULL_MOVE;
+
+        int destinationCoordinate = tileOf(san[end - 2], san[end - 1]);
+        if (destinationCoordinate < 0)
+            return Move.NULL_MOVE;
+
+        Piece.PieceType pieceType = pieceTypeOf(san[offset]);
+        int index = offset;
+        if (pieceType == null || pieceType == Piece.PieceType.PAWN)
+            pieceType = Piece.PieceType.PAWN;
+        else
+            index++;
+
+        // disambiguation by start file and/or rank, capture marks are optional
+        int fromFile = NO_FILE;
+        int fromRank = NO_RANK;
+        for (; index < end - 2; index++) {
+            byte symbol = san[index];
+            if (symbol >= 'a' && symbol <= 'h')
+                fromFile = symbol - 'a';
+            else if (symbol >= '1' && symbol <= '8')
+                fromRank = symbol - '1';
+            else if (symbol != 'x' && symbol != ':' && symbol != '-')
+                return Move.NULL_MOVE;
+        }
+
+        Alliance alliance = player.getAlliance();
+        Move resolvedMove = Move.NULL_MOVE;
+        for (long candidates = board.getPieceBitboard(pieceType, alliance); candidates != 0; candidates &= candidates - 1) {
+            int currentCoordinate = Long.numberOfTrailingZeros(candidates);
+            if (fromFile != NO_FILE && currentCoordinate % BoardUtils.NUM_TILES_PER_ROW != fromFile)
+                continue;
+            if (fromRank != NO_RANK && BoardUtils.NUM_TILES_PER_ROW - 1 - currentCoordinate / BoardUtils.NUM_TILES_PER_ROW != fromRank)
+                continue;
+
+            Move move = player.getLegalMove(currentCoordinate, destinationCoordinate, promotionType);
+            if (move == Move.NULL_MOVE || move.isCastlingMove())
+                continue;
+            if (resolvedMove != Move.NULL_MOVE)
+                return Move.NULL_MOVE; // ambiguous
+            resolvedMove = move;
+        }
+        return resolvedMove;
+    }
+
+    /**
+     * O-O castles king side, O-O-O queen side
+     */
+    private static Move resolveCastle(Player player, byte[] san, int offset, int end) {
+        int kingTile = player.getPlayerKing().getPiecePosition();
+        int destinationCoordinate;
+        if (end - offset == 3)
+            destinationCoordinate = kingTile + 2;
+        else if (end - offset == 5)
+            destinationCoordinate = kingTile - 2;
+        else
+            return Move.NULL_MOVE;
+
+        Move move = player.getLegalMove(kingTile, destinationCoordinate, null);
+        return move.isCastlingMove() ? move : Move.NULL_MOVE;
+    }
+
+    /**
+     * @return type of the piece with given SAN letter, or null if the byte is no piece letter
+     */
+    private static Piece.PieceType pieceTypeOf(byte symbol) {
+        switch (symbol) {
+            case 'N': return Piece.PieceType.KNIGHT;
+            case 'B': return Piece.PieceType.BISHOP;
+            case 'R': return Piece.PieceType.ROOK;
+            case 'Q': return Piece.PieceType.QUEEN;
+            case 'K': return Piece.PieceType.KING;
+            default: return null;
+        }
+    }
+
+    /**
+     * @return tile coordinate of the square, e.g. e4, or -1 if the bytes are no square
+     */
+    private static int tileOf(byte file, byte rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8')
+            return -1;
+        return ('8' - rank) * BoardUtils.NUM_TILES_PER_ROW + (file - 'a');
+    }
+
+    private static boolean isSuffix(byte symbol) {
+        return symbol == '+' || symbol == '#' || symbol == '!' || symbol == '?';
+    }
+}
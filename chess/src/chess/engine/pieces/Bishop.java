@@ -2,23 +2,15 @@ package chess.engine.pieces;
 
 import chess.engine.Alliance;
 import chess.engine.board.Board;
-import chess.engine.board.BoardUtils;
+import chess.engine.board.MagicBitboards;
 import chess.engine.board.Move;
-import chess.engine.board.Tile;
 
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
-
-import static chess.engine.board.Move.*;
 
 /**
  * This class is for bishop piece
  */
 public class Bishop extends Piece {
-    private static final int[] CANDIDATE_MOVE_VECTOR_COORDINATES = {-9, -7, 7, 9};
-
     public Bishop(int piecePosition, Alliance pieceAlliance) {
         super(piecePosition, pieceAlliance, PieceType.BISHOP, true);
     }
@@ -27,46 +19,16 @@ public class Bishop extends Piece {
         super(piecePosition, pieceAlliance, PieceType.BISHOP, isFirstMove);
     }
 
+    /**
+     * Calculates the legal moves that current bishop can make, using the precomputed sliding attack tables
+     *
+     * @param board - game board object
+     * @return - list of legal moves
+     */
     @Override
     public Collection<Move> calculateLegalMoves(Board board) {
-        List<Move> legalMoves = new ArrayList<Move>();
-
-        for (int currentCandidateOffset : CANDIDATE_MOVE_VECTOR_COORDINATES) {
-            int candidateDestinationCoordinate = this.piecePosition;
-
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                if (isFirstColumnExclusion(candidateDestinationCoordinate, currentCandidateOffset) ||
-                        isEighthColumnExclusion(candidateDestinationCoordinate, currentCandidateOffset))
-                    break;
-
-                candidateDestinationCoordinate += currentCandidateOffset;
-
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    Tile candidateDestinationTile = board.getTile(candidateDestinationCoordinate);
-
-                    if (!candidateDestinationTile.isTileOccupied()) // Empty tile
-                        legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate)); // non-attacking move
-                    else {
-                        Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-
-                        if (this.getPieceAlliance() != pieceAlliance) // Enemy piece
-                            legalMoves.add(new AttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination)); // attacking move
-
-                        break; // obstacle piece
-                    }
-                }
-            }
-        }
-
-        return Collections.unmodifiableList(legalMoves);
-    }
-
-    private static boolean isFirstColumnExclusion(int currentPosition, int candidatePosition) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidatePosition == -9 || candidatePosition == 7);
-    }
-    private static boolean isEighthColumnExclusion(int currentPosition, int candidatePosition) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidatePosition == -7 || candidatePosition == 9);
+        long attacks = MagicBitboards.getBishopAttacks(this.piecePosition, board.getOccupancy());
+        return createMovesToTiles(board, attacks & ~board.getOccupancy(this.pieceAlliance));
     }
 
     /**
@@ -77,7 +39,7 @@ public class Bishop extends Piece {
      */
     @Override
     public Bishop movePiece(Move move) {
-        return new Bishop(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return (Bishop) createPiece(PieceType.BISHOP, this.pieceAlliance, move.getDestinationCoordinate(), false);
     }
 
     @Override
@@ -75,7 +75,7 @@ public class King extends Piece {
      */
     @Override
     public King movePiece(Move move) {
-        return new King(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return (King) createPiece(PieceType.KING, this.pieceAlliance, move.getDestinationCoordinate(), false);
     }
 
     @Override
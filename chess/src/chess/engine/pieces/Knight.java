@@ -85,7 +85,7 @@ public class Knight extends Piece {
      */
     @Override
     public Knight movePiece(Move move) {
-        return new Knight(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return (Knight) createPiece(PieceType.KNIGHT, this.pieceAlliance, move.getDestinationCoordinate(), false);
     }
 
     @Override
@@ -17,6 +17,7 @@ import static chess.engine.board.Move.*;
  */
 public class Pawn extends Piece {
     private final static int[] CANDIDATE_MOVE_COORDINATE = {7, 8, 9, 16};
+    private final static PieceType[] PROMOTION_TYPES = {PieceType.QUEEN, PieceType.ROOK, PieceType.BISHOP, PieceType.KNIGHT};
 
     public Pawn(int piecePosition, Alliance pieceAlliance) {
         super(piecePosition, pieceAlliance, PieceType.PAWN, true);
@@ -43,8 +44,7 @@ public class Pawn extends Piece {
                 continue;
 
             if (currentCandidateOffset == 8 && !board.getTile(candidateDestinationCoordinate).isTileOccupied())
-                //TODO more work here!!!
-                legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate));
+                addPawnMove(legalMoves, new PawnMove(board, this, candidateDestinationCoordinate));
             else if (currentCandidateOffset == 16 && this.isFirstMove() &&
                     ((BoardUtils.SEVENTH_RANK[this.piecePosition] && this.pieceAlliance.isBlack()) ||
                             (BoardUtils.SECOND_RANK[this.piecePosition] && this.pieceAlliance.isWhite()))) {
@@ -55,28 +55,48 @@ public class Pawn extends Piece {
 
             } else if (currentCandidateOffset == 7 && !((BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite()) ||
                     (BoardUtils.FIRST_COLUMN[this.piecePosition]) && this.pieceAlliance.isBlack())) {
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    Piece pieceAtDestination = board.getTile(candidateDestinationCoordinate).getPiece();
-
-                    if (this.pieceAlliance != pieceAtDestination.getPieceAlliance())
-                        //TODO more work here!!!
-                        legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                }
+                addPawnAttack(legalMoves, board, candidateDestinationCoordinate);
             } else if (currentCandidateOffset == 9 && !((BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack()) ||
                     (BoardUtils.FIRST_COLUMN[this.piecePosition]) && this.pieceAlliance.isWhite())) {
-                if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    Piece pieceAtDestination = board.getTile(candidateDestinationCoordinate).getPiece();
-
-                    if (this.pieceAlliance != pieceAtDestination.getPieceAlliance())
-                        //TODO more work here!!!
-                        legalMoves.add(new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
-                }
+                addPawnAttack(legalMoves, board, candidateDestinationCoordinate);
             }
         }
 
         return Collections.unmodifiableList(legalMoves);
     }
 
+    /**
+     * Adds the capture on the destination tile, or the en passant capture of the pawn which has just jumped past it
+     */
+    private void addPawnAttack(List<Move> legalMoves, Board board, int candidateDestinationCoordinate) {
+        if (board.getTile(candidateDestinationCoordinate).isTileOccupied()) {
+            Piece pieceAtDestination = board.getTile(candidateDestinationCoordinate).getPiece();
+
+            if (this.pieceAlliance != pieceAtDestination.getPieceAlliance())
+                addPawnMove(legalMoves, new PawnAttackMove(board, this, candidateDestinationCoordinate, pieceAtDestination));
+            return;
+        }
+
+        Pawn enPassantPawn = board.getEnPassantPawn();
+        if (enPassantPawn != null && enPassantPawn.getPieceAlliance() != this.pieceAlliance &&
+                enPassantPawn.getPiecePosition() == candidateDestinationCoordinate - this.pieceAlliance.getDirection() * 8)
+            legalMoves.add(new PawnEnPassantAttackMove(board, this, candidateDestinationCoordinate, enPassantPawn));
+    }
+
+    /**
+     * Adds the move, or one promotion per piece type if the move reaches the last rank
+     */
+    private void addPawnMove(List<Move> legalMoves, Move move) {
+        int destinationCoordinate = move.getDestinationCoordinate();
+        if (!(this.pieceAlliance.isWhite() ? BoardUtils.EIGHTH_RANK[destinationCoordinate] : BoardUtils.FIRST_RANK[destinationCoordinate])) {
+            legalMoves.add(move);
+            return;
+        }
+
+        for (PieceType promotionType : PROMOTION_TYPES)
+            legalMoves.add(new PawnPromotion(move, promotionType));
+    }
+
     /**
      * Moves the pawn on a new position on the chess board
      *
@@ -85,7 +105,7 @@ public class Pawn extends Piece {
      */
     @Override
     public Pawn movePiece(Move move) {
-        return new Pawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return (Pawn) createPiece(PieceType.PAWN, this.pieceAlliance, move.getDestinationCoordinate(), false);
     }
 
     @Override
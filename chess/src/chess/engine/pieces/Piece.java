@@ -4,18 +4,26 @@ import chess.engine.Alliance;
 import chess.engine.board.Board;
 import chess.engine.board.Move;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static chess.engine.board.Move.*;
 
 /**
  * This class is for chess piece
  */
 public abstract class Piece {
+    /** Number of distinct pieces: one per type, alliance, tile and first move flag */
+    public static final int NUM_FLYWEIGHTS = 6 * 2 * 64 * 2;
 
     protected final int piecePosition;
     protected final Alliance pieceAlliance;
     protected final PieceType pieceType;
     protected final boolean isFirstMove;
     private final int cachedHashCode;
+    private final int flyweightIndex;
 
     public Piece(int piecePosition, Alliance pieceAlliance, PieceType pieceType, boolean isFirstMove) {
         this.piecePosition = piecePosition;
@@ -23,6 +31,54 @@ public abstract class Piece {
         this.pieceType = pieceType;
         this.isFirstMove = isFirstMove;
         this.cachedHashCode = calculateHashCode();
+        this.flyweightIndex = flyweightIndex(pieceType, pieceAlliance, piecePosition, isFirstMove);
+    }
+
+    /**
+     * Pieces are immutable values, so all boards share one instance of every possible piece
+     */
+    private static class Flyweights {
+        static final Piece[] PIECES = createFlyweights();
+
+        private static Piece[] createFlyweights() {
+            Piece[] pieces = new Piece[NUM_FLYWEIGHTS];
+            for (PieceType pieceType : PieceType.values())
+                for (Alliance alliance : Alliance.values())
+                    for (int position = 0; position < 64; position++)
+                        for (boolean isFirstMove : new boolean[] {false, true}) {
+                            Piece piece = newPiece(pieceType, alliance, position, isFirstMove);
+                            pieces[piece.flyweightIndex] = piece;
+                        }
+            return pieces;
+        }
+    }
+
+    /**
+     * Returns the shared instance of a piece
+     *
+     * @param pieceType - type of the piece
+     * @param pieceAlliance - colour of the piece
+     * @param piecePosition - tile of the piece
+     * @param isFirstMove - true if the piece has not moved yet
+     * @return - piece, the same instance for equal arguments
+     */
+    public static Piece createPiece(PieceType pieceType, Alliance pieceAlliance, int piecePosition, boolean isFirstMove) {
+        return Flyweights.PIECES[flyweightIndex(pieceType, pieceAlliance, piecePosition, isFirstMove)];
+    }
+
+    private static int flyweightIndex(PieceType pieceType, Alliance pieceAlliance, int piecePosition, boolean isFirstMove) {
+        return ((pieceType.ordinal() * 2 + pieceAlliance.ordinal()) * 64 + piecePosition) * 2 + (isFirstMove ? 1 : 0);
+    }
+
+    private static Piece newPiece(PieceType pieceType, Alliance pieceAlliance, int piecePosition, boolean isFirstMove) {
+        switch (pieceType) {
+            case PAWN: return new Pawn(piecePosition, pieceAlliance, isFirstMove);
+            case KNIGHT: return new Knight(piecePosition, pieceAlliance, isFirstMove);
+            case BISHOP: return new Bishop(piecePosition, pieceAlliance, isFirstMove);
+            case ROOK: return new Rook(piecePosition, pieceAlliance, isFirstMove);
+            case QUEEN: return new Queen(piecePosition, pieceAlliance, isFirstMove);
+            default: return new King(piecePosition, pieceAlliance, isFirstMove);
+        }
     }
 
     /**
@@ -44,6 +100,31 @@ public abstract class Piece {
      */
     public abstract Collection<Move> calculateLegalMoves(Board board);
 
+    /**
+     * Creates a move to every tile of the destinations bitboard: major moves to empty tiles and
+     * attack moves to occupied ones
+     *
+     * @param board - game board object
+     * @param destinations - bitboard of reachable tiles without tiles of own pieces
+     * @return - list of moves
+     */
+    protected Collection<Move> createMovesToTiles(Board board, long destinations) {
+        List<Move> legalMoves = new ArrayList<>(Long.bitCount(destinations));
+        long occupancy = board.getOccupancy();
+
+        for (long bits = destinations; bits != 0; bits &= bits - 1) {
+            int candidateDestinationCoordinate = Long.numberOfTrailingZeros(bits);
+
+            if ((occupancy & (1L << candidateDestinationCoordinate)) == 0) // Empty tile
+                legalMoves.add(new MajorMove(board, this, candidateDestinationCoordinate)); // non-attacking move
+            else
+                legalMoves.add(new AttackMove(board, this, candidateDestinationCoordinate,
+                        board.getTile(candidateDestinationCoordinate).getPiece())); // attacking move
+        }
+
+        return Collections.unmodifiableList(legalMoves);
+    }
+
     /**
      * Moves the piece on a new position on the chess board
      *
@@ -63,6 +144,13 @@ public abstract class Piece {
     }
     public PieceType getPieceType() { return pieceType;}
 
+    /**
+     * @return index of the piece among all NUM_FLYWEIGHTS possible pieces
+     */
+    public int getFlyweightIndex() {
+        return this.flyweightIndex;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
@@ -18,8 +18,8 @@ import static chess.engine.board.Move.*;
  */
 public class BlackPlayer extends Player {
 
-    public BlackPlayer(Board board, Collection<Move> whiteStandardLegalMoves, Collection<Move> blackStandardLegalMoves) {
-        super(board, blackStandardLegalMoves, whiteStandardLegalMoves);
+    public BlackPlayer(Board board) {
+        super(board);
     }
 
     @Override
@@ -38,31 +38,25 @@ public class BlackPlayer extends Player {
     }
 
     /**
-     * Castle move for black player king
-     * @param playerLegalMoves - list of black player legal moves
-     * @param opponentLegalMoves - list of white player legal moves
+     * Castle moves for black player king, attacks on the tiles the king passes are checked by LegalMoveGenerator
      * @return list of castle moves for black king
      */
     @Override
-    protected Collection<Move> calculateKingCastles(Collection<Move> playerLegalMoves, Collection<Move> opponentLegalMoves) {
+    protected Collection<Move> calculateKingCastles() {
         List<Move> kingCastles = new ArrayList<>();
         if (this.playerKing.isFirstMove() && !this.isInCheck()) {
             // black king side castle
             if (!this.board.getTile(5).isTileOccupied() && !this.board.getTile(6).isTileOccupied()) {
                 Tile rookTile = this.board.getTile(7);
-                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove())
-                    if (Player.calculateAttacksOnTile(5, opponentLegalMoves).isEmpty() &&
-                            Player.calculateAttacksOnTile(6, opponentLegalMoves).isEmpty() &&
-                            rookTile.getPiece().getPieceType() == Piece.PieceType.ROOK)
-                        kingCastles.add(new KingSideCastleMove(this.board, this.playerKing, 6, (Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 5));
+                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
+                    rookTile.getPiece().getPieceType() == Piece.PieceType.ROOK)
+                    kingCastles.add(new KingSideCastleMove(this.board, this.playerKing, 6, (Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 5));
             }
             if (!this.board.getTile(1).isTileOccupied() &&
                     !this.board.getTile(2).isTileOccupied() &&
                     !this.board.getTile(3).isTileOccupied()) {
                 Tile rookTile = this.board.getTile(0);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
-                    Player.calculateAttacksOnTile(2, opponentLegalMoves).isEmpty() &&
-                    Player.calculateAttacksOnTile(3, opponentLegalMoves).isEmpty() &&
                     rookTile.getPiece().getPieceType() == Piece.PieceType.ROOK)
                     kingCastles.add(new QueenSideCastleMove(this.board, this.playerKing, 2, (Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 3 ));
             }
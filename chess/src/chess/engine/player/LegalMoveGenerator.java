@@ -0,0 +1,113 @@
+package chess.engine.player;
+
+import chess.engine.Alliance;
+import chess.engine.board.Board;
+import chess.engine.board.BoardUtils;
+import chess.engine.board.MagicBitboards;
+import chess.engine.board.Move;
+import chess.engine.pieces.Piece;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Legal move filter of one player, without executing any move.
+ *
+ * The pieces giving check and the pieces pinned to the king are computed once per board. Then a move is legal if
+ * - a king move does not enter an attacked tile, a castle move does not start in check or pass an attacked tile;
+ * - any other move blocks or captures the only checker, if there is one, and a pinned piece stays on its pin ray.
+ */
+class LegalMoveGenerator {
+    private final Board board;
+    private final Alliance alliance;
+    private final Alliance opponent;
+    private final int kingTile;
+    private final long checkers;
+    private final long checkMask;
+    private final long pinnedPieces;
+    private final long[] pinRays;
+
+    /**
+     * @param board - game board
+     * @param alliance - colour of the player
+     * @param kingTile - tile of the player's king
+     */
+    LegalMoveGenerator(Board board, Alliance alliance, int kingTile) {
+        this.board = board;
+        this.alliance = alliance;
+        this.opponent = alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+        this.kingTile = kingTile;
+        this.checkers = board.getAttackers(kingTile, this.opponent, board.getOccupancy());
+
+        if (this.checkers == 0)
+            this.checkMask = ~0L;
+        else if (Long.bitCount(this.checkers) > 1)
+            this.checkMask = 0L; // double check, only the king can move
+        else
+            this.checkMask = this.checkers | BoardUtils.BETWEEN[kingTile][Long.numberOfTrailingZeros(this.checkers)];
+
+        // sliders which would attack the king on an empty board pin the only piece between them and the king
+        long queens = board.getPieceBitboard(Piece.PieceType.QUEEN, this.opponent);
+        long snipers = (MagicBitboards.getRookAttacks(kingTile, 0L) & (board.getPieceBitboard(Piece.PieceType.ROOK, this.opponent) | queens)) |
+                       (MagicBitboards.getBishopAttacks(kingTile, 0L) & (board.getPieceBitboard(Piece.PieceType.BISHOP, this.opponent) | queens));
+        long pinnedPieces = 0L;
+        this.pinRays = new long[BoardUtils.NUM_TILES];
+        for (; snipers != 0; snipers &= snipers - 1) {
+            int sniperTile = Long.numberOfTrailingZeros(snipers);
+            long blockers = BoardUtils.BETWEEN[kingTile][sniperTile] & board.getOccupancy();
+            if (Long.bitCount(blockers) == 1 && (blockers & board.getOccupancy(alliance)) != 0) {
+                pinnedPieces |= blockers;
+                this.pinRays[Long.numberOfTrailingZeros(blockers)] = BoardUtils.BETWEEN[kingTile][sniperTile] | 1L << sniperTile;
+            }
+        }
+        this.pinnedPieces = pinnedPieces;
+    }
+
+    boolean isInCheck() {
+        return this.checkers != 0;
+    }
+
+    /**
+     * @param pseudoLegalMoves - moves of the player's pieces, including castle moves
+     * @return the legal moves among them
+     */
+    Collection<Move> filter(Collection<Move> pseudoLegalMoves) {
+        List<Move> legalMoves = new ArrayList<>(pseudoLegalMoves.size());
+        for (Move move : pseudoLegalMoves)
+            if (isLegal(move))
+                legalMoves.add(move);
+        return Collections.unmodifiableList(legalMoves);
+    }
+
+    private boolean isLegal(Move move) {
+        int from = move.getCurrentCoordinate();
+        int to = move.getDestinationCoordinate();
+        Piece attackedPiece = move.getAttackedPiece();
+
+        if (from == this.kingTile) {
+            if (!move.isCastlingMove()) // the king does not shelter the tiles behind it from sliding attacks
+                return (this.board.getAttackers(to, this.opponent, this.board.getOccupancy() & ~(1L << from)) & ~(1L << to)) == 0;
+
+            if (isInCheck())
+                return false;
+            int step = to > from ? 1 : -1;
+            for (int tile = from + step; tile != to + step; tile += step)
+                if (this.board.isSquareAttacked(tile, this.opponent))
+                    return false;
+            return true;
+        }
+
+        if (attackedPiece != null && attackedPiece.getPiecePosition() != to) {
+            // en passant removes two pieces from one row, so check the king directly
+            long capturedPawn = 1L << attackedPiece.getPiecePosition();
+            long occupancy = (this.board.getOccupancy() & ~(1L << from) & ~capturedPawn) | 1L << to;
+            return (this.board.getAttackers(this.kingTile, this.opponent, occupancy) & ~capturedPawn) == 0;
+        }
+
+        if ((this.checkMask & 1L << to) == 0)
+            return false;
+        return (this.pinnedPieces & 1L << from) == 0 || (this.pinRays[from] & 1L << to) != 0;
+    }
+}
@@ -0,0 +1,70 @@
+package chess.engine.player;
+
+import chess.engine.board.Move;
+import chess.engine.pieces.Piece;
+
+import java.util.Collection;
+
+/**
+ * Legal moves of one player with a lookup by start and destination tile.
+ *
+ * Moves are sorted by their key (start tile plus 64 times destination tile plus 4096 times the promotion piece
+ * type ordinal, like TranspositionTable.packMove), so a lookup is a binary search over at most a few hundred ints.
+ */
+class MoveIndex {
+    private final Collection<Move> moves;
+    private final int[] keys;
+    private final Move[] sortedMoves;
+
+    /**
+     * @param moves - legal moves, at most one per pair of tiles and promotion piece type
+     */
+    MoveIndex(Collection<Move> moves) {
+        this.moves = moves;
+        this.keys = new int[moves.size()];
+        this.sortedMoves = new Move[moves.size()];
+
+        int size = 0;
+        for (Move move : moves) {
+            // insertion sort, move lists are short
+            int key = key(move.getCurrentCoordinate(), move.getDestinationCoordinate(), move.getPromotionType());
+            int i = size++;
+            for (; i > 0 && this.keys[i - 1] > key; i--) {
+                this.keys[i] = this.keys[i - 1];
+                this.sortedMoves[i] = this.sortedMoves[i - 1];
+            }
+            this.keys[i] = key;
+            this.sortedMoves[i] = move;
+        }
+    }
+
+    Collection<Move> getMoves() {
+        return this.moves;
+    }
+
+    /**
+     * @param currentCoordinate - start tile
+     * @param destinationCoordinate - destination tile
+     * @param promotionType - promotion piece type, or null
+     * @return the move between the tiles, or Move.NULL_MOVE
+     */
+    Move find(int currentCoordinate, int destinationCoordinate, Piece.PieceType promotionType) {
+        int key = key(currentCoordinate, destinationCoordinate, promotionType);
+        int low = 0;
+        int high = this.keys.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (this.keys[middle] < key)
+                low = middle + 1;
+            else if (this.keys[middle] > key)
+                high = middle - 1;
+            else
+                return this.sortedMoves[middle];
+        }
+        return Move.NULL_MOVE;
+    }
+
+    private static int key(int currentCoordinate, int destinationCoordinate, Piece.PieceType promotionType) {
+        return currentCoordinate | destinationCoordinate << 6 | (promotionType == null ? 0 : promotionType.ordinal() << 12);
+    }
+}
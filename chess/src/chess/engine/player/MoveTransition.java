@@ -20,6 +20,9 @@ public class MoveTransition {
         this.transitionBoard = transitionBoard;
     }
 
+    public Move getMove() {
+        return this.move;
+    }
     public MoveStatus getMoveStatus() {
         return this.moveStatus;
     }
@@ -2,6 +2,7 @@ package chess.engine.player;
 
 import chess.engine.Alliance;
 import chess.engine.board.Board;
+import chess.engine.board.BoardUtils;
 import chess.engine.board.Move;
 import chess.engine.pieces.King;
 import chess.engine.pieces.Piece;
@@ -19,35 +20,69 @@ public abstract class Player {
 
     protected Board board;
     protected King playerKing;
-    protected Collection<Move> legalMoves;
-    private boolean isInCheck;
 
-    public Player(Board board, Collection<Move> legalMoves, Collection<Move> opponentLegalMoves) {
+    // computed on first use, many boards are never asked for moves; boards may be shared between search threads
+    private volatile LegalMoveGenerator legalMoveGenerator;
+    private volatile MoveIndex legalMoves;
+
+    public Player(Board board) {
         this.board = board;
         this.playerKing = establishKing();
-        //TODO legal moves
-        this.legalMoves = legalMoves;
-        this.legalMoves.addAll(calculateKingCastles(legalMoves, opponentLegalMoves));
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentLegalMoves).isEmpty();
     }
 
     public King getPlayerKing() { return this.playerKing; }
-    public Collection<Move> getLegalMoves() { return this.legalMoves; }
 
     /**
-     * Calculates all attacking moves which can be done on piecePosition by the opponent
-     * @param piecePosition - position of checked piece
-     * @param opponentLegalMoves - opponent moves list
-     * @return list of attacking moves
+     * Legal moves are calculated on the first call and remembered
+     * @return legal moves of the player, castle moves included
      */
-    public static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> opponentLegalMoves) {
-        List<Move> attackMoves = new ArrayList<>();
+    public Collection<Move> getLegalMoves() {
+        return getMoveIndex().getMoves();
+    }
 
-        for (Move move : opponentLegalMoves)
-            if (piecePosition == move.getDestinationCoordinate())
-                attackMoves.add(move);
+    /**
+     * @param currentCoordinate - start tile
+     * @param destinationCoordinate - destination tile
+     * @return legal move between the tiles, promoting to a queen if a pawn reaches the last rank, or Move.NULL_MOVE
+     */
+    public Move getLegalMove(int currentCoordinate, int destinationCoordinate) {
+        Move move = getLegalMove(currentCoordinate, destinationCoordinate, null);
+        return move != Move.NULL_MOVE ? move : getLegalMove(currentCoordinate, destinationCoordinate, Piece.PieceType.QUEEN);
+    }
 
-        return attackMoves;
+    /**
+     * @param currentCoordinate - start tile
+     * @param destinationCoordinate - destination tile
+     * @param promotionType - promotion piece type, or null for moves which promote nothing
+     * @return legal move between the tiles, or Move.NULL_MOVE
+     */
+    public Move getLegalMove(int currentCoordinate, int destinationCoordinate, Piece.PieceType promotionType) {
+        if (!BoardUtils.isValidTileCoordinate(currentCoordinate) || !BoardUtils.isValidTileCoordinate(destinationCoordinate))
+            return Move.NULL_MOVE;
+        return getMoveIndex().find(currentCoordinate, destinationCoordinate, promotionType);
+    }
+
+    private MoveIndex getMoveIndex() {
+        MoveIndex legalMoves = this.legalMoves;
+        if (legalMoves == null) {
+            List<Move> pseudoLegalMoves = new ArrayList<>();
+            for (Piece piece : getActivePieces())
+                pseudoLegalMoves.addAll(piece.calculateLegalMoves(this.board));
+            pseudoLegalMoves.addAll(calculateKingCastles());
+
+            legalMoves = new MoveIndex(getLegalMoveGenerator().filter(pseudoLegalMoves));
+            this.legalMoves = legalMoves;
+        }
+        return legalMoves;
+    }
+
+    private LegalMoveGenerator getLegalMoveGenerator() {
+        LegalMoveGenerator legalMoveGenerator = this.legalMoveGenerator;
+        if (legalMoveGenerator == null) {
+            legalMoveGenerator = new LegalMoveGenerator(this.board, getAlliance(), this.playerKing.getPiecePosition());
+            this.legalMoveGenerator = legalMoveGenerator;
+        }
+        return legalMoveGenerator;
     }
 
     /**
@@ -62,40 +97,33 @@ public abstract class Player {
     }
 
     public boolean isMoveLegal(Move move) {
-        return this.legalMoves.contains(move);
+        Move legalMove = getLegalMove(move.getCurrentCoordinate(), move.getDestinationCoordinate(), move.getPromotionType());
+        return legalMove != Move.NULL_MOVE && (legalMove == move || legalMove.equals(move));
     }
-    public boolean isInCheck() { return this.isInCheck; }
-    public boolean isInCheckMate() { return this.isInCheck && !hasEscapeMoves(); }
-    public boolean isInStaleMate() { return !this.isInCheck && !hasEscapeMoves(); }
+    public boolean isInCheck() { return getLegalMoveGenerator().isInCheck(); }
+    public boolean isInCheckMate() { return isInCheck() && !hasEscapeMoves(); }
+    public boolean isInStaleMate() { return !isInCheck() && !hasEscapeMoves(); }
 
     protected boolean hasEscapeMoves() {
-        for (Move move : legalMoves) {
-            MoveTransition transition = makeMove(move);
-            if (transition.getMoveStatus().isDone())
-                return true;
-        }
-        return false;
+        return !getLegalMoves().isEmpty();
     }
 
     public boolean isCastled() { return false; }
 
+    /**
+     * Legal moves never leave the king in check, so only moves which are not legal are refused
+     * @param move - move of the player
+     * @return transition to the board after the move
+     */
     public MoveTransition makeMove(Move move) {
         if (!isMoveLegal(move))
             return new MoveTransition(move, MoveStatus.ILLEGAL_MOVE, this.board);
 
-        Board transitionBoard = move.execute();
-
-        //Calculates the attacks on the tile for the current player opponent's king
-        Collection<Move> kingAttacks = Player.calculateAttacksOnTile(transitionBoard.getCurrentPlayer().getOpponent().getPlayerKing().getPiecePosition(),
-                                                                     transitionBoard.getCurrentPlayer().getLegalMoves());
-        if (!kingAttacks.isEmpty())
-            return new MoveTransition(move, MoveStatus.LEAVES_PLAYER_IN_CHECK, this.board);
-
-        return new MoveTransition(move, MoveStatus.DONE, transitionBoard);
+        return new MoveTransition(move, MoveStatus.DONE, move.execute());
     }
 
     public abstract Collection<Piece> getActivePieces();
     public abstract Alliance getAlliance();
     public abstract Player getOpponent();
-    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegalMoves, Collection<Move> opponentLegalMoves);
+    protected abstract Collection<Move> calculateKingCastles();
 }
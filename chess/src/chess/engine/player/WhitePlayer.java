@@ -18,8 +18,8 @@ import static chess.engine.board.Move.*;
  */
 public class WhitePlayer extends Player {
 
-    public WhitePlayer(Board board, Collection<Move> whiteStandardLegalMoves, Collection<Move> blackStandardLegalMoves) {
-        super(board, whiteStandardLegalMoves, blackStandardLegalMoves);
+    public WhitePlayer(Board board) {
+        super(board);
     }
 
     @Override
@@ -36,31 +36,25 @@ public class WhitePlayer extends Player {
     }
 
     /**
-     * Castle move for white player king
-     * @param playerLegalMoves - list of white player legal moves
-     * @param opponentLegalMoves - list of black player legal moves
+     * Castle moves for white player king, attacks on the tiles the king passes are checked by LegalMoveGenerator
      * @return list of castle moves for white king
      */
     @Override
-    protected Collection<Move> calculateKingCastles(Collection<Move> playerLegalMoves, Collection<Move> opponentLegalMoves) {
+    protected Collection<Move> calculateKingCastles() {
         List<Move> kingCastles = new ArrayList<>();
         if (this.playerKing.isFirstMove() && !this.isInCheck()) {
             // white king side castle
             if (!this.board.getTile(61).isTileOccupied() && !this.board.getTile(62).isTileOccupied()) {
                 Tile rookTile = this.board.getTile(63);
-                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove())
-                    if (Player.calculateAttacksOnTile(61, opponentLegalMoves).isEmpty() &&
-                            Player.calculateAttacksOnTile(62, opponentLegalMoves).isEmpty() &&
-                            rookTile.getPiece().getPieceType() == Piece.PieceType.ROOK)
-                        kingCastles.add(new KingSideCastleMove(this.board, this.playerKing, 62, (Rook) rookTile.getPiece(), rookTile.getTileCoordinate(), 61));
+                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
+                    rookTile.getPiece().getPieceType() == Piece.PieceType.ROOK)
+                    kingCastles.add(new KingSideCastleMove(this.board, this.playerKing, 62, (Rook) rookTile.getPiece(), rookTile.getTileCoordinate(), 61));
             }
             if (!this.board.getTile(59).isTileOccupied() &&
                     !this.board.getTile(58).isTileOccupied() &&
                     !this.board.getTile(57).isTileOccupied()) {
                 Tile rookTile = this.board.getTile(56);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
-                    Player.calculateAttacksOnTile(58, opponentLegalMoves).isEmpty() &&
-                    Player.calculateAttacksOnTile(59, opponentLegalMoves).isEmpty() &&
                     rookTile.getPiece().getPieceType() == Piece.PieceType.ROOK)
                     kingCastles.add(new QueenSideCastleMove(this.board, this.playerKing, 58, (Rook)rookTile.getPiece(), rookTile.getTileCoordinate(), 59));
             }
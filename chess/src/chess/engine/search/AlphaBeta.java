@@ -0,0 +1,378 @@
+package chess.engine.search;
+
+import chess.engine.board.Board;
+import chess.engine.board.BoardUtils;
+import chess.engine.board.Move;
+import chess.engine.player.MoveTransition;
+import chess.engine.tablebase.Tablebase;
+import chess.engine.tablebase.TablebaseProbe;
+import chess.engine.tablebase.Wdl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-depth negamax search with alpha-beta pruning over Player.makeMove, followed by a quiescence search
+ * over captures at the leaves.
+ *
+ * Moves are searched in MoveOrdering order: the transposition table move first, then captures, killers and
+ * quiet moves by history.
+ * Scores are from the point of view of the player who is to move; mates are scored MATE_SCORE minus the
+ * distance in plies, so shorter mates are preferred. A board repeating an earlier one, in the game or in the
+ * search, is scored as a draw, as is a board drawn by the fifty-move rule. Search results are kept in a
+ * transposition table, which may be shared with other searches. With a tablebase set, boards with few enough
+ * pieces reached by a capture or pawn move are not searched: a WDL probe gives their result, which is exact as
+ * the halfmove clock is zero there. A win or loss is scored below mates, minus the distance from the root, and
+ * a cursed win or blessed loss is a draw. A root board in the tablebase is not searched either: its moves are
+ * ranked by the DTZ tables, a win by the fewest plies to the next capture or pawn move, so the winning side
+ * makes progress, and a win or loss the halfmove clock leaves too few plies for is a draw. A search can be
+ * aborted by its SearchLimits or by stop(), then isAborted() tells the caller to discard its result.
+ */
+public class AlphaBeta implements MoveStrategy {
+    public static final int MATE_SCORE = 30000;
+    public static final int INFINITE_SCORE = 31000;
+    private static final int MATE_BOUND = MATE_SCORE - 1000;
+    private static final int TABLEBASE_WIN_SCORE = MATE_BOUND - 1000;
+    private static final int TABLEBASE_BOUND = TABLEBASE_WIN_SCORE - 1000;
+    private static final int LIMIT_CHECK_INTERVAL = 256;
+
+    private final BoardEvaluator evaluator;
+    private final TranspositionTable transpositionTable;
+    private final int searchDepth;
+    private final MoveOrdering moveOrdering;
+
+    private final TablebaseProbe tablebaseProbe = new TablebaseProbe();
+    private Tablebase tablebase;
+    private SearchLimits limits;
+    private long startNanos;
+    private long nodesSearched;
+    private long elapsedNanos;
+    private int bestScore;
+    private boolean aborted;
+    private volatile boolean stopped;
+
+    public AlphaBeta(int searchDepth) {
+        this(searchDepth, new PieceSquareEvaluator(), new TranspositionTable(16));
+    }
+
+    public AlphaBeta(int searchDepth, BoardEvaluator evaluator, TranspositionTable transpositionTable) {
+        if (searchDepth < 1)
+            throw new IllegalArgumentException("Search depth must be positive: " + searchDepth);
+        this.searchDepth = searchDepth;
+        this.evaluator = evaluator;
+        this.transpositionTable = transpositionTable;
+        this.moveOrdering = new MoveOrdering();
+        this.limits = SearchLimits.NONE;
+    }
+
+    @Override
+    public Move execute(Board board) {
+        this.transpositionTable.newSearch();
+        startSearch(SearchLimits.NONE);
+        Move bestMove = searchRoot(board, this.searchDepth, Move.NULL_MOVE);
+        finishSearch();
+        return bestMove;
+    }
+
+    /**
+     * @param tablebase - tablebase probed in the search, or null
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Resets the counters and starts the clock of a new search
+     * @param limits - limits the search is aborted by
+     */
+    void startSearch(SearchLimits limits) {
+        this.limits = limits;
+        this.startNanos = System.nanoTime();
+        this.nodesSearched = 0;
+        this.aborted = false;
+        this.stopped = false;
+        this.moveOrdering.newSearch();
+    }
+
+    void finishSearch() {
+        this.elapsedNanos = System.nanoTime() - this.startNanos;
+    }
+
+    /**
+     * Searches all root moves to given depth, the previous best move first
+     * @param board - root board
+     * @param depth - depth of the search
+     * @param previousBestMove - best move of a shallower search, or Move.NULL_MOVE
+     * @return best move, if the search is aborted the best move found before that, or the first legal move in
+     *         search order if no move was completed; Move.NULL_MOVE only if there is no legal move
+     */
+    Move searchRoot(Board board, int depth, Move previousBestMove) {
+        int alpha = -INFINITE_SCORE;
+        int hashMove = previousBestMove == Move.NULL_MOVE ? TranspositionTable.NO_MOVE : TranspositionTable.packMove(previousBestMove);
+        Move[] orderedMoves = this.moveOrdering.orderMoves(board.getCurrentPlayer().getLegalMoves(), hashMove, 0);
+        Move bestMove = orderedMoves.length == 0 ? Move.NULL_MOVE : orderedMoves[0];
+        if (this.tablebase != null) {
+            Move tablebaseMove = probeRoot(board, orderedMoves);
+            if (tablebaseMove != Move.NULL_MOVE)
+                return tablebaseMove;
+        }
+
+        for (Move move : orderedMoves) {
+            if (this.aborted)
+                break;
+
+            MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+            int score = -search(transition.getTransitionBoard(), depth - 1, -INFINITE_SCORE, -alpha, 1);
+            if (!this.aborted && score > alpha) {
+                alpha = score;
+                bestMove = move;
+            }
+        }
+
+        if (!this.aborted)
+            this.bestScore = alpha;
+        return bestMove;
+    }
+
+    /**
+     * Ranks the root moves by the tablebase instead of searching them
+     * @param board - root board
+     * @param moves - legal moves of the root board
+     * @return best move, or Move.NULL_MOVE if the root board or a board after one of its moves cannot be probed
+     *         with its DTZ
+     */
+    private Move probeRoot(Board board, Move[] moves) {
+        if (!this.tablebase.probe(board, this.tablebaseProbe) || !this.tablebaseProbe.hasDtz())
+            return Move.NULL_MOVE;
+
+        Move bestMove = Move.NULL_MOVE;
+        int bestScore = -INFINITE_SCORE;
+        for (Move move : moves) {
+            Board transitionBoard = board.getCurrentPlayer().makeMove(move).getTransitionBoard();
+            int score;
+            if (transitionBoard.getCurrentPlayer().isInCheckMate()) {
+                score = MATE_SCORE - 1;
+            } else {
+                if (!this.tablebase.probe(transitionBoard, this.tablebaseProbe) || !this.tablebaseProbe.hasDtz())
+                    return Move.NULL_MOVE;
+                score = -tablebaseScore(this.tablebaseProbe.getDtz(), transitionBoard.getHalfmoveClock());
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+        }
+        this.bestScore = bestScore;
+        return bestMove;
+    }
+
+    /**
+     * @param dtz - DTZ of the board after a root move, for its player to move
+     * @param halfmoveClock - halfmove clock of that board, zero if the root move is a capture or pawn move
+     * @return score of the board for its player to move, counting the root move in the plies to zeroing; a win
+     *         the fifty-move rule spoils is still scored one above a draw, as a capture may bring it back
+     */
+    private static int tablebaseScore(int dtz, int halfmoveClock) {
+        if (Math.abs(dtz) + halfmoveClock > BoardUtils.FIFTY_MOVE_RULE_PLIES)
+            return Integer.signum(dtz);
+        if (dtz == 0)
+            return 0;
+        int plies = halfmoveClock == 0 ? 1 : Math.abs(dtz) + 1;
+        return dtz > 0 ? TABLEBASE_WIN_SCORE - plies : -TABLEBASE_WIN_SCORE + plies;
+    }
+
+    /**
+     * @param board - searched board
+     * @param depth - remaining depth
+     * @param alpha - score the player to move is already guaranteed
+     * @param beta - score the opponent is already guaranteed, negated
+     * @param ply - distance from the root
+     * @return score of the board for the player to move, meaningless once the search is aborted
+     */
+    private int search(Board board, int depth, int alpha, int beta, int ply) {
+        if (depth == 0)
+            return quiescence(board, alpha, beta, ply);
+        if (countNode())
+            return 0;
+        if (board.getRepetitionCount() > 0)
+            return 0;
+        // the clock alone rules out nearly every board, the checkmate test of the rule generates the legal moves
+        if (board.getHalfmoveClock() >= BoardUtils.FIFTY_MOVE_RULE_PLIES && board.isFiftyMoveRule())
+            return 0;
+        // the tables assume a zero halfmove clock, so only boards right after a capture or pawn move are probed
+        if (this.tablebase != null && board.getHalfmoveClock() == 0 && this.tablebase.probeWdl(board, this.tablebaseProbe)) {
+            Wdl wdl = this.tablebaseProbe.getWdl();
+            if (!wdl.isDecisive())
+                return 0;
+            return wdl == Wdl.WIN ? TABLEBASE_WIN_SCORE - ply : -TABLEBASE_WIN_SCORE + ply;
+        }
+
+        long key = board.getZobristKey();
+        long entry = this.transpositionTable.probe(key);
+        int hashMove = entry == TranspositionTable.NO_ENTRY ? TranspositionTable.NO_MOVE : TranspositionTable.getMove(entry);
+        if (entry != TranspositionTable.NO_ENTRY && TranspositionTable.getDepth(entry) >= depth) {
+            int score = scoreFromTable(TranspositionTable.getScore(entry), ply);
+            switch (TranspositionTable.getBoundType(entry)) {
+                case EXACT:
+                    return score;
+                case LOWER_BOUND:
+                    if (score >= beta)
+                        return score;
+                    break;
+                case UPPER_BOUND:
+                    if (score <= alpha)
+                        return score;
+                    break;
+            }
+        }
+
+        int originalAlpha = alpha;
+        int bestScore = -INFINITE_SCORE;
+        Move bestMove = Move.NULL_MOVE;
+        for (Move move : this.moveOrdering.orderMoves(board.getCurrentPlayer().getLegalMoves(), hashMove, ply)) {
+            MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+            int score = -search(transition.getTransitionBoard(), depth - 1, -beta, -alpha, ply + 1);
+            if (this.aborted)
+                return 0;
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+            }
+            if (score > alpha)
+                alpha = score;
+            if (alpha >= beta) { // cutoff, the opponent will avoid this board
+                if (!move.isAttack())
+                    this.moveOrdering.updateQuietCutoff(move, depth, ply);
+                break;
+            }
+        }
+
+        if (bestMove == Move.NULL_MOVE) // no legal move: checkmate or stalemate
+            return board.getCurrentPlayer().isInCheck() ? -MATE_SCORE + ply : 0;
+
+        BoundType boundType = bestScore <= originalAlpha ? BoundType.UPPER_BOUND :
+                              bestScore >= beta ? BoundType.LOWER_BOUND : BoundType.EXACT;
+        this.transpositionTable.store(key, depth, boundType, scoreToTable(bestScore, ply), TranspositionTable.packMove(bestMove));
+        return bestScore;
+    }
+
+    /**
+     * Capture-only search from the leaves of the main search, so no board is evaluated in the middle of an exchange.
+     * The player to move may stand pat on the static evaluation instead of capturing; captures which lose material
+     * by static exchange evaluation are not searched. A player in check searches all moves instead.
+     * @param board - searched board
+     * @param alpha - score the player to move is already guaranteed
+     * @param beta - score the opponent is already guaranteed, negated
+     * @param ply - distance from the root
+     * @return score of the board for the player to move, meaningless once the search is aborted
+     */
+    private int quiescence(Board board, int alpha, int beta, int ply) {
+        if (countNode())
+            return 0;
+
+        boolean inCheck = board.getCurrentPlayer().isInCheck();
+        int bestScore = -MATE_SCORE + ply;
+        if (!inCheck) {
+            bestScore = this.evaluator.evaluate(board);
+            if (bestScore >= beta)
+                return bestScore;
+            if (bestScore > alpha)
+                alpha = bestScore;
+        }
+
+        List<Move> moves = new ArrayList<>();
+        for (Move move : board.getCurrentPlayer().getLegalMoves())
+            if (inCheck || move.isAttack() && StaticExchange.evaluate(board, move) >= 0)
+                moves.add(move);
+
+        for (Move move : this.moveOrdering.orderMoves(moves, TranspositionTable.NO_MOVE, ply)) {
+            MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+            int score = -quiescence(transition.getTransitionBoard(), -beta, -alpha, ply + 1);
+            if (this.aborted)
+                return 0;
+            if (score > bestScore)
+                bestScore = score;
+            if (score > alpha)
+                alpha = score;
+            if (alpha >= beta)
+                break;
+        }
+
+        if (inCheck && moves.isEmpty()) // checkmate
+            return -MATE_SCORE + ply;
+        return bestScore;
+    }
+
+    /**
+     * Counts a searched node and checks the limits now and then
+     * @return true if the search is aborted
+     */
+    private boolean countNode() {
+        if (++this.nodesSearched % LIMIT_CHECK_INTERVAL == 0 && !this.aborted)
+            this.aborted = this.stopped ||
+                           this.limits.isHardLimitReached(System.nanoTime() - this.startNanos, this.nodesSearched);
+        return this.aborted;
+    }
+
+    /**
+     * Mate and tablebase scores are stored relative to the stored board instead of the root
+     */
+    static int scoreToTable(int score, int ply) {
+        return score > TABLEBASE_BOUND ? score + ply : score < -TABLEBASE_BOUND ? score - ply : score;
+    }
+
+    static int scoreFromTable(int score, int ply) {
+        return score > TABLEBASE_BOUND ? score - ply : score < -TABLEBASE_BOUND ? score + ply : score;
+    }
+
+    /**
+     * @param score - search score
+     * @return true if the score announces a mate for either side
+     */
+    public static boolean isMateScore(int score) {
+        return Math.abs(score) > MATE_BOUND;
+    }
+
+    /**
+     * Aborts the running search, may be called from any thread
+     */
+    public void stop() {
+        this.stopped = true;
+    }
+
+    /**
+     * @return true if the last searchRoot was aborted before all root moves were searched
+     */
+    boolean isAborted() {
+        return this.aborted;
+    }
+
+    long getElapsedNanos() {
+        return System.nanoTime() - this.startNanos;
+    }
+
+    @Override
+    public long getNodesSearched() {
+        return this.nodesSearched;
+    }
+
+    /**
+     * @return nodes per second of the last execute
+     */
+    public long getNodesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.nodesSearched * 1_000_000_000L / this.elapsedNanos;
+    }
+
+    /**
+     * @return score of the best move of the last completed search
+     */
+    public int getBestScore() {
+        return this.bestScore;
+    }
+
+    @Override
+    public String toString() {
+        return "AlphaBeta depth " + this.searchDepth + ": " + this.nodesSearched + " nodes, " +
+               getNodesPerSecond() + " nodes/sec, score " + this.bestScore;
+    }
+}
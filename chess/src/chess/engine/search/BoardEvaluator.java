@@ -0,0 +1,15 @@
+package chess.engine.search;
+
+import chess.engine.board.Board;
+
+/**
+ * Static evaluation of a board
+ */
+public interface BoardEvaluator {
+
+    /**
+     * @param board - game board
+     * @return score in centipawns from the point of view of the player who is to move
+     */
+    int evaluate(Board board);
+}
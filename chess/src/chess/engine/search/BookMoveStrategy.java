@@ -0,0 +1,66 @@
+package chess.engine.search;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.book.PolyglotBook;
+
+import java.util.Random;
+
+/**
+ * Strategy which plays from an opening book for the first plies of a game and searches afterwards.
+ *
+ * A book move costs one binary search in the book, so positions found in the book skip the search entirely.
+ */
+public class BookMoveStrategy implements MoveStrategy {
+    private final PolyglotBook book;
+    private final MoveStrategy searchStrategy;
+    private final int maxBookPlies;
+    private final Random random;
+
+    private boolean isBookMove;
+
+    /**
+     * @param book - opening book
+     * @param searchStrategy - strategy for the positions which are not in the book
+     * @param maxBookPlies - number of plies from the start of the game the book is used for
+     * @param random - chooses book moves by weight, or null to always play the move with the highest weight
+     */
+    public BookMoveStrategy(PolyglotBook book, MoveStrategy searchStrategy, int maxBookPlies, Random random) {
+        this.book = book;
+        this.searchStrategy = searchStrategy;
+        this.maxBookPlies = maxBookPlies;
+        this.random = random;
+    }
+
+    @Override
+    public Move execute(Board board) {
+        int ply = 2 * (board.getFullmoveNumber() - 1) + (board.getCurrentPlayer().getAlliance().isBlack() ? 1 : 0);
+        if (ply < this.maxBookPlies) {
+            Move bookMove = this.random == null ? this.book.getBestMove(board) : this.book.getWeightedRandomMove(board, this.random);
+            if (bookMove != Move.NULL_MOVE) {
+                this.isBookMove = true;
+                return bookMove;
+            }
+        }
+
+        this.isBookMove = false;
+        return this.searchStrategy.execute(board);
+    }
+
+    /**
+     * @return true if the last execute played a book move
+     */
+    public boolean isBookMove() {
+        return this.isBookMove;
+    }
+
+    @Override
+    public long getNodesSearched() {
+        return this.isBookMove ? 0 : this.searchStrategy.getNodesSearched();
+    }
+
+    @Override
+    public String toString() {
+        return "Book, then " + this.searchStrategy;
+    }
+}
@@ -0,0 +1,10 @@
+package chess.engine.search;
+
+/**
+ * Kind of score stored in the transposition table
+ */
+public enum BoundType {
+    EXACT,
+    LOWER_BOUND,
+    UPPER_BOUND
+}
@@ -0,0 +1,117 @@
+package chess.engine.search;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.tablebase.Tablebase;
+
+/**
+ * Iterative deepening over AlphaBeta: searches depth 1, 2, 3... until a limit is reached.
+ *
+ * A new iteration is started only while the soft time limit is not reached; the hard time limit, the node
+ * limit and stop() abort the running iteration, whose result is then thrown away. The returned move is
+ * always the best move of the last completed iteration, so per-move latency is bounded by the hard limit.
+ */
+public class IterativeDeepening implements MoveStrategy {
+    private final AlphaBeta alphaBeta;
+    private final TranspositionTable transpositionTable;
+    private final SearchLimits limits;
+
+    private int completedDepth;
+    private int bestScore;
+    private long elapsedNanos;
+
+    public IterativeDeepening(SearchLimits limits) {
+        this(limits, new PieceSquareEvaluator(), new TranspositionTable(16));
+    }
+
+    public IterativeDeepening(SearchLimits limits, BoardEvaluator evaluator, TranspositionTable transpositionTable) {
+        this.limits = limits;
+        this.transpositionTable = transpositionTable;
+        this.alphaBeta = new AlphaBeta(limits.getMaxDepth(), evaluator, transpositionTable);
+    }
+
+    @Override
+    public Move execute(Board board) {
+        this.transpositionTable.newSearch();
+        return search(board);
+    }
+
+    /**
+     * Runs the iterations without starting a new transposition table search, so searches sharing the table
+     * keep their entries of the same age
+     * @param board - root board
+     * @return best move of the last completed iteration
+     */
+    Move search(Board board) {
+        this.alphaBeta.startSearch(this.limits);
+        this.completedDepth = 0;
+
+        Move bestMove = Move.NULL_MOVE;
+        for (int depth = 1; depth <= this.limits.getMaxDepth(); depth++) {
+            Move iterationMove = this.alphaBeta.searchRoot(board, depth, bestMove);
+
+            if (this.alphaBeta.isAborted()) {
+                if (bestMove == Move.NULL_MOVE) // not even depth 1 is complete, take what it has found or its first legal move
+                    bestMove = iterationMove;
+                break;
+            }
+
+            bestMove = iterationMove;
+            this.completedDepth = depth;
+            this.bestScore = this.alphaBeta.getBestScore();
+
+            if (bestMove == Move.NULL_MOVE || AlphaBeta.isMateScore(this.bestScore) ||
+                    this.limits.isSoftLimitReached(this.alphaBeta.getElapsedNanos()))
+                break;
+        }
+
+        this.alphaBeta.finishSearch();
+        this.elapsedNanos = this.alphaBeta.getElapsedNanos();
+        return bestMove;
+    }
+
+    /**
+     * Aborts the running search, may be called from any thread; execute then returns the best move
+     * of the last completed iteration
+     */
+    public void stop() {
+        this.alphaBeta.stop();
+    }
+
+    /**
+     * @param tablebase - tablebase probed in the search, or null
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.alphaBeta.setTablebase(tablebase);
+    }
+
+    @Override
+    public long getNodesSearched() {
+        return this.alphaBeta.getNodesSearched();
+    }
+
+    public long getNodesPerSecond() {
+        return this.alphaBeta.getNodesPerSecond();
+    }
+
+    long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /**
+     * @return depth of the last completed iteration
+     */
+    public int getCompletedDepth() {
+        return this.completedDepth;
+    }
+
+    public int getBestScore() {
+        return this.bestScore;
+    }
+
+    @Override
+    public String toString() {
+        return "IterativeDeepening depth " + this.completedDepth + ": " + getNodesSearched() + " nodes, " +
+               getNodesPerSecond() + " nodes/sec, " + this.elapsedNanos / 1_000_000 + " ms, score " + this.bestScore;
+    }
+}
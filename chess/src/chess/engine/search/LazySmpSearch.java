@@ -0,0 +1,153 @@
+package chess.engine.search;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.tablebase.Tablebase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Lazy SMP parallel search.
+ *
+ * All threads search the same root board and share one lockless transposition table, so every thread profits
+ * from the positions the others have already searched. The main thread runs iterative deepening and reports
+ * the result; helper threads deepen on their own, odd helpers one ply ahead, so the threads spread over
+ * different depths. When the main thread is done, the helpers are stopped.
+ * With one thread the search is single-threaded and deterministic.
+ */
+public class LazySmpSearch implements MoveStrategy {
+    private final SearchLimits limits;
+    private final TranspositionTable transpositionTable;
+    private final IterativeDeepening mainSearch;
+    private final AlphaBeta[] helpers;
+    private final ExecutorService helperPool;
+
+    private long nodesSearched;
+    private long elapsedNanos;
+
+    public LazySmpSearch(SearchLimits limits, int threadCount) {
+        this(limits, threadCount, new PieceSquareEvaluator(), new TranspositionTable(64));
+    }
+
+    public LazySmpSearch(SearchLimits limits, int threadCount, BoardEvaluator evaluator, TranspositionTable transpositionTable) {
+        if (threadCount < 1)
+            throw new IllegalArgumentException("Thread count must be positive: " + threadCount);
+
+        this.limits = limits;
+        this.transpositionTable = transpositionTable;
+        this.mainSearch = new IterativeDeepening(limits, evaluator, transpositionTable);
+        this.helpers = new AlphaBeta[threadCount - 1];
+        for (int i = 0; i < this.helpers.length; i++)
+            this.helpers[i] = new AlphaBeta(limits.getMaxDepth(), evaluator, transpositionTable);
+        this.helperPool = this.helpers.length == 0 ? null : Executors.newFixedThreadPool(this.helpers.length, runnable -> {
+            Thread thread = new Thread(runnable, "lazy-smp-helper");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Move execute(Board board) {
+        this.transpositionTable.newSearch();
+
+        List<Future<?>> helperResults = new ArrayList<>(this.helpers.length);
+        for (int i = 0; i < this.helpers.length; i++) {
+            AlphaBeta helper = this.helpers[i];
+            int startDepth = 1 + i % 2;
+            helper.startSearch(this.limits);
+            helperResults.add(this.helperPool.submit(() -> deepen(helper, board, startDepth)));
+        }
+
+        Move bestMove = this.mainSearch.search(board);
+
+        this.nodesSearched = this.mainSearch.getNodesSearched();
+        for (int i = 0; i < this.helpers.length; i++) {
+            this.helpers[i].stop();
+            waitFor(helperResults.get(i));
+            this.nodesSearched += this.helpers[i].getNodesSearched();
+        }
+        this.elapsedNanos = this.mainSearch.getElapsedNanos();
+
+        return bestMove;
+    }
+
+    /**
+     * Helper thread loop: deepens until stopped or a limit is reached, results only go to the shared table
+     */
+    private void deepen(AlphaBeta helper, Board board, int startDepth) {
+        Move bestMove = Move.NULL_MOVE;
+        for (int depth = startDepth; depth <= this.limits.getMaxDepth() && !helper.isAborted(); depth++)
+            bestMove = helper.searchRoot(board, depth, bestMove);
+    }
+
+    private static void waitFor(Future<?> helperResult) {
+        try {
+            helperResult.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Helper search failed", e.getCause());
+        }
+    }
+
+    /**
+     * Aborts the running search, may be called from any thread
+     */
+    public void stop() {
+        this.mainSearch.stop();
+        for (AlphaBeta helper : this.helpers)
+            helper.stop();
+    }
+
+    /**
+     * @param tablebase - tablebase probed by all threads, or null
+     */
+    public void setTablebase(Tablebase tablebase) {
+        this.mainSearch.setTablebase(tablebase);
+        for (AlphaBeta helper : this.helpers)
+            helper.setTablebase(tablebase);
+    }
+
+    /**
+     * Stops the helper threads, the strategy cannot be used afterwards
+     */
+    public void shutdown() {
+        if (this.helperPool != null)
+            this.helperPool.shutdownNow();
+    }
+
+    public int getThreadCount() {
+        return this.helpers.length + 1;
+    }
+
+    /**
+     * @return nodes searched by all threads during the last execute
+     */
+    @Override
+    public long getNodesSearched() {
+        return this.nodesSearched;
+    }
+
+    public long getNodesPerSecond() {
+        return this.elapsedNanos == 0 ? 0 : this.nodesSearched * 1_000_000_000L / this.elapsedNanos;
+    }
+
+    public int getCompletedDepth() {
+        return this.mainSearch.getCompletedDepth();
+    }
+
+    public int getBestScore() {
+        return this.mainSearch.getBestScore();
+    }
+
+    @Override
+    public String toString() {
+        return "LazySmpSearch " + getThreadCount() + " threads, depth " + getCompletedDepth() + ": " +
+               this.nodesSearched + " nodes, " + getNodesPerSecond() + " nodes/sec, score " + getBestScore();
+    }
+}
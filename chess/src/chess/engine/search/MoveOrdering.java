@@ -0,0 +1,109 @@
+package chess.engine.search;
+
+import chess.engine.board.BoardUtils;
+import chess.engine.board.Move;
+import chess.engine.pieces.Piece;
+
+import java.util.Collection;
+
+/**
+ * Orders moves so alpha-beta finds cutoffs early:
+ * the hash move first, then captures by MVV-LVA (most valuable victim, least valuable attacker),
+ * then the two killer moves of the ply, then quiet moves by their history score.
+ *
+ * Killers and history are learnt from the cutoffs of the search, so every search thread keeps its own ordering.
+ */
+class MoveOrdering {
+    private static final int HASH_MOVE_SCORE = 2_000_000;
+    private static final int CAPTURE_SCORE = 1_000_000;
+    private static final int FIRST_KILLER_SCORE = 900_000;
+    private static final int SECOND_KILLER_SCORE = 800_000;
+    private static final int MAX_HISTORY_SCORE = 500_000;
+
+    private final int[][] killerMoves = new int[SearchLimits.MAX_DEPTH + 1][2];
+    private final int[][] historyScores = new int[BoardUtils.NUM_TILES][BoardUtils.NUM_TILES];
+
+    /**
+     * Forgets the killers of the previous search and fades its history
+     */
+    void newSearch() {
+        for (int[] killers : this.killerMoves) {
+            killers[0] = TranspositionTable.NO_MOVE;
+            killers[1] = TranspositionTable.NO_MOVE;
+        }
+        for (int[] scores : this.historyScores)
+            for (int i = 0; i < scores.length; i++)
+                scores[i] /= 8;
+    }
+
+    /**
+     * @param moves - moves of one board
+     * @param hashMove - best move remembered for the board, packed by TranspositionTable.packMove
+     * @param ply - distance of the board from the root
+     * @return moves sorted from the most to the least promising
+     */
+    Move[] orderMoves(Collection<Move> moves, int hashMove, int ply) {
+        Move[] orderedMoves = moves.toArray(new Move[moves.size()]);
+        int[] scores = new int[orderedMoves.length];
+        int[] killers = this.killerMoves[Math.min(ply, SearchLimits.MAX_DEPTH)];
+
+        for (int i = 0; i < orderedMoves.length; i++) {
+            Move move = orderedMoves[i];
+            int packedMove = TranspositionTable.packMove(move);
+
+            if (packedMove == hashMove)
+                scores[i] = HASH_MOVE_SCORE;
+            else if (move.isAttack())
+                scores[i] = CAPTURE_SCORE + mvvLva(move);
+            else if (packedMove == killers[0])
+                scores[i] = FIRST_KILLER_SCORE;
+            else if (packedMove == killers[1])
+                scores[i] = SECOND_KILLER_SCORE;
+            else
+                scores[i] = this.historyScores[move.getCurrentCoordinate()][move.getDestinationCoordinate()];
+        }
+
+        // insertion sort, move lists are short
+        for (int i = 1; i < orderedMoves.length; i++) {
+            Move move = orderedMoves[i];
+            int score = scores[i];
+            int j = i - 1;
+            while (j >= 0 && scores[j] < score) {
+                orderedMoves[j + 1] = orderedMoves[j];
+                scores[j + 1] = scores[j];
+                j--;
+            }
+            orderedMoves[j + 1] = move;
+            scores[j + 1] = score;
+        }
+        return orderedMoves;
+    }
+
+    /**
+     * Remembers a quiet move which caused a beta cutoff
+     * @param move - cutoff move
+     * @param depth - remaining depth of the cutoff, deeper cutoffs weigh more
+     * @param ply - distance of the board from the root
+     */
+    void updateQuietCutoff(Move move, int depth, int ply) {
+        int packedMove = TranspositionTable.packMove(move);
+        int[] killers = this.killerMoves[Math.min(ply, SearchLimits.MAX_DEPTH)];
+        if (killers[0] != packedMove) {
+            killers[1] = killers[0];
+            killers[0] = packedMove;
+        }
+
+        int[] scores = this.historyScores[move.getCurrentCoordinate()];
+        scores[move.getDestinationCoordinate()] = Math.min(MAX_HISTORY_SCORE,
+                scores[move.getDestinationCoordinate()] + depth * depth);
+    }
+
+    /**
+     * @param move - attack move
+     * @return ten times the victim value minus the attacker value
+     */
+    static int mvvLva(Move move) {
+        Piece attackedPiece = move.getAttackedPiece();
+        return 10 * attackedPiece.getPieceType().getPieceValue() - move.getMovedPiece().getPieceType().getPieceValue();
+    }
+}
@@ -0,0 +1,21 @@
+package chess.engine.search;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+
+/**
+ * Strategy of a computer player: chooses a move for the player who is to move on a board
+ */
+public interface MoveStrategy {
+
+    /**
+     * @param board - game board
+     * @return best move found for the current player, or Move.NULL_MOVE if there is no legal move
+     */
+    Move execute(Board board);
+
+    /**
+     * @return number of positions visited by the last execute
+     */
+    long getNodesSearched();
+}
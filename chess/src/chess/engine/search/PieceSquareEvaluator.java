@@ -0,0 +1,17 @@
+package chess.engine.search;
+
+import chess.engine.board.Board;
+import chess.engine.board.PieceSquareTables;
+
+/**
+ * Tapered evaluation of material and piece placement: the middlegame and endgame sums kept by the board
+ * are blended by the game phase, so the evaluation costs the same on every board.
+ */
+public class PieceSquareEvaluator implements BoardEvaluator {
+
+    @Override
+    public int evaluate(Board board) {
+        int score = PieceSquareTables.taper(board.getMiddlegameScore(), board.getEndgameScore(), board.getGamePhase());
+        return board.getCurrentPlayer().getAlliance().isWhite() ? score : -score;
+    }
+}
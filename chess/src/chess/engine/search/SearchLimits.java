@@ -0,0 +1,89 @@
+package chess.engine.search;
+
+/**
+ * Limits of one search: maximal depth, hard and soft time limits and a node limit.
+ *
+ * The hard time limit and the node limit abort a search in the middle of an iteration; the soft time limit
+ * only stops iterative deepening from starting another iteration.
+ */
+public class SearchLimits {
+    public static final int MAX_DEPTH = 64;
+    public static final SearchLimits NONE = new Builder().build();
+
+    private final int maxDepth;
+    private final long hardTimeNanos;
+    private final long softTimeNanos;
+    private final long nodeLimit;
+
+    private SearchLimits(Builder builder) {
+        this.maxDepth = builder.maxDepth;
+        this.hardTimeNanos = builder.hardTimeNanos;
+        this.softTimeNanos = Math.min(builder.softTimeNanos, builder.hardTimeNanos);
+        this.nodeLimit = builder.nodeLimit;
+    }
+
+    public int getMaxDepth() {
+        return this.maxDepth;
+    }
+
+    /**
+     * @param elapsedNanos - time since the search started
+     * @param nodesSearched - nodes searched so far
+     * @return true if the search must stop at once
+     */
+    public boolean isHardLimitReached(long elapsedNanos, long nodesSearched) {
+        return elapsedNanos >= this.hardTimeNanos || nodesSearched >= this.nodeLimit;
+    }
+
+    /**
+     * @param elapsedNanos - time since the search started
+     * @return true if no new iteration should be started
+     */
+    public boolean isSoftLimitReached(long elapsedNanos) {
+        return elapsedNanos >= this.softTimeNanos;
+    }
+
+    /**
+     * Builder pattern class for search limits, every limit is unbounded unless set
+     */
+    public static class Builder {
+        int maxDepth = MAX_DEPTH;
+        long hardTimeNanos = Long.MAX_VALUE;
+        long softTimeNanos = Long.MAX_VALUE;
+        long nodeLimit = Long.MAX_VALUE;
+
+        public Builder setMaxDepth(int maxDepth) {
+            if (maxDepth < 1 || maxDepth > MAX_DEPTH)
+                throw new IllegalArgumentException("Search depth must be between 1 and " + MAX_DEPTH + ": " + maxDepth);
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * @param hardTimeMillis - time after which the search is aborted
+         * @return builder
+         */
+        public Builder setHardTimeMillis(long hardTimeMillis) {
+            this.hardTimeNanos = hardTimeMillis * 1_000_000L;
+            return this;
+        }
+
+        /**
+         * @param softTimeMillis - time after which no new iteration is started
+         * @return builder
+         */
+        public Builder setSoftTimeMillis(long softTimeMillis) {
+            this.softTimeNanos = softTimeMillis * 1_000_000L;
+            return this;
+        }
+
+        public Builder setNodeLimit(long nodeLimit) {
+            this.nodeLimit = nodeLimit;
+            return this;
+        }
+
+        public SearchLimits build() {
+            return new SearchLimits(this);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package chess.engine.search;
+
+import chess.engine.board.Board;
+import chess.engine.pieces.Piece;
+import chess.engine.player.Player;
+
+/**
+ * Material evaluation: sum of piece values of the current player minus those of the opponent
+ */
+public class StandardBoardEvaluator implements BoardEvaluator {
+
+    @Override
+    public int evaluate(Board board) {
+        Player player = board.getCurrentPlayer();
+        return material(player) - material(player.getOpponent());
+    }
+
+    private static int material(Player player) {
+        int material = 0;
+        for (Piece piece : player.getActivePieces())
+            if (piece.getPieceType() != Piece.PieceType.KING)
+                material += piece.getPieceValue();
+        return material;
+    }
+}
@@ -0,0 +1,83 @@
+package chess.engine.search;
+
+import chess.engine.Alliance;
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.pieces.Piece;
+
+/**
+ * Static exchange evaluation (SEE): the material outcome of the capture sequence on one tile,
+ * when both sides always recapture with their least valuable attacker and may stop capturing at any time.
+ *
+ * Sliding attackers hidden behind a capturing piece (x-rays) join the exchange once the piece has left its tile.
+ */
+public class StaticExchange {
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+    private static final int MAX_EXCHANGE_LENGTH = 32;
+
+    private StaticExchange() {
+        throw new RuntimeException("Cannot create object of this class");
+    }
+
+    /**
+     * @param board - board the move is made on
+     * @param move - attack move
+     * @return material won by the move in centipawns, negative if the move loses material
+     */
+    public static int evaluate(Board board, Move move) {
+        int target = move.getDestinationCoordinate();
+        int[] gains = new int[MAX_EXCHANGE_LENGTH];
+        gains[0] = move.getAttackedPiece().getPieceValue();
+
+        Alliance side = move.getMovedPiece().getPieceAlliance();
+        int capturingValue = move.getMovedPiece().getPieceValue();
+        long occupancy = board.getOccupancy() & ~(1L << move.getCurrentCoordinate());
+        int depth = 0;
+
+        while (depth + 1 < MAX_EXCHANGE_LENGTH) {
+            depth++;
+            side = opposite(side);
+            gains[depth] = capturingValue - gains[depth - 1]; // value if the piece just moved is captured back
+
+            long attackers = getAttackers(board, target, occupancy);
+            long sideAttackers = attackers & board.getOccupancy(side);
+            if (sideAttackers == 0)
+                break;
+
+            Piece.PieceType pieceType = getLeastValuableType(board, sideAttackers, side);
+            if (pieceType == Piece.PieceType.KING && (attackers & board.getOccupancy(opposite(side))) != 0)
+                break; // the king cannot capture into a defended tile
+
+            long attacker = sideAttackers & board.getPieceBitboard(pieceType, side);
+            occupancy &= ~(attacker & -attacker);
+            capturingValue = pieceType.getPieceValue();
+        }
+
+        // every side stops capturing as soon as going on would lose material
+        while (--depth > 0)
+            gains[depth - 1] = -Math.max(-gains[depth - 1], gains[depth]);
+        return gains[0];
+    }
+
+    /**
+     * @param board - game board
+     * @param tileCoordinate - attacked tile
+     * @param occupancy - tiles still occupied during the exchange
+     * @return bitboard of the pieces of both sides attacking the tile
+     */
+    private static long getAttackers(Board board, int tileCoordinate, long occupancy) {
+        return (board.getAttackers(tileCoordinate, Alliance.WHITE, occupancy) |
+                board.getAttackers(tileCoordinate, Alliance.BLACK, occupancy)) & occupancy;
+    }
+
+    private static Piece.PieceType getLeastValuableType(Board board, long attackers, Alliance alliance) {
+        for (Piece.PieceType pieceType : PIECE_TYPES)
+            if ((attackers & board.getPieceBitboard(pieceType, alliance)) != 0)
+                return pieceType;
+        throw new IllegalArgumentException("No attacker among the pieces");
+    }
+
+    private static Alliance opposite(Alliance alliance) {
+        return alliance.isWhite() ? Alliance.BLACK : Alliance.WHITE;
+    }
+}
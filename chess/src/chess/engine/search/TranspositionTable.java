@@ -0,0 +1,191 @@
+package chess.engine.search;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.pieces.Piece;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size lockless transposition table, shared by any number of search threads.
+ *
+ * Every entry is two longs: the key XORed with the data, and the data itself. A reader accepts an entry only
+ * if both words XOR back to its key, so an entry torn by two threads writing at once simply looks like a miss
+ * and no locks are needed. Entries are grouped in buckets of four (64 bytes); a new position replaces
+ * the entry of the same position, an empty one, or else the one with the lowest depth, where entries from
+ * older searches count as shallower.
+ *
+ * Data layout: move (16 bits) | score (16 bits) | depth (8 bits) | bound (2 bits) | age (8 bits).
+ */
+public class TranspositionTable {
+    public static final long NO_ENTRY = 0L;
+    public static final int NO_MOVE = 0;
+
+    private static final int BUCKET_SIZE = 4;
+    private static final int LONGS_PER_ENTRY = 2;
+    private static final int BYTES_PER_ENTRY = LONGS_PER_ENTRY * Long.BYTES;
+    private static final int AGE_WEIGHT = 8;
+    private static final BoundType[] BOUND_TYPES = BoundType.values();
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+
+    private static final int SCORE_SHIFT = 16;
+    private static final int DEPTH_SHIFT = 32;
+    private static final int BOUND_SHIFT = 40;
+    private static final int AGE_SHIFT = 42;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int age;
+
+    /**
+     * @param sizeInMegabytes - memory used by the table, rounded down to a power of two number of buckets
+     */
+    public TranspositionTable(int sizeInMegabytes) {
+        if (sizeInMegabytes <= 0)
+            throw new IllegalArgumentException("Transposition table size must be positive: " + sizeInMegabytes);
+
+        long buckets = Long.highestOneBit((long) sizeInMegabytes * 1024 * 1024 / (BYTES_PER_ENTRY * BUCKET_SIZE));
+        buckets = Math.min(buckets, Integer.highestOneBit(Integer.MAX_VALUE / (BUCKET_SIZE * LONGS_PER_ENTRY)));
+        this.table = new long[(int) buckets * BUCKET_SIZE * LONGS_PER_ENTRY];
+        this.bucketMask = (int) buckets - 1;
+        this.age = 0;
+    }
+
+    /**
+     * Looks up a position
+     * @param key - Zobrist key of the position
+     * @return packed entry data, or NO_ENTRY; decode it with getMove, getScore, getDepth and getBoundType
+     */
+    public long probe(long key) {
+        int index = bucketIndex(key);
+        for (int i = 0; i < BUCKET_SIZE; i++, index += LONGS_PER_ENTRY) {
+            long data = this.table[index + 1];
+            if ((this.table[index] ^ data) == key && data != NO_ENTRY)
+                return data;
+        }
+        return NO_ENTRY;
+    }
+
+    /**
+     * Stores a search result of a position
+     * @param key - Zobrist key of the position
+     * @param depth - remaining depth the position was searched to
+     * @param boundType - whether score is exact, a lower or an upper bound
+     * @param score - score of the position, must fit in 16 bits
+     * @param move - best move packed by packMove, or NO_MOVE
+     */
+    public void store(long key, int depth, BoundType boundType, int score, int move) {
+        int currentAge = this.age;
+        int bucket = bucketIndex(key);
+        int replaceIndex = bucket;
+        int replaceWeight = Integer.MAX_VALUE;
+
+        for (int i = 0, index = bucket; i < BUCKET_SIZE; i++, index += LONGS_PER_ENTRY) {
+            long data = this.table[index + 1];
+            if (data == NO_ENTRY) {
+                if (replaceWeight > Integer.MIN_VALUE) {
+                    replaceIndex = index;
+                    replaceWeight = Integer.MIN_VALUE;
+                }
+                continue;
+            }
+            if ((this.table[index] ^ data) == key) { // same position, keep its move if we have none
+                if (move == NO_MOVE)
+                    move = getMove(data);
+                replaceIndex = index;
+                break;
+            }
+            int weight = getDepth(data) - AGE_WEIGHT * ((currentAge - getAge(data)) & 0xFF);
+            if (weight < replaceWeight) {
+                replaceIndex = index;
+                replaceWeight = weight;
+            }
+        }
+
+        long data = (move & 0xFFFFL) |
+                    ((score & 0xFFFFL) << SCORE_SHIFT) |
+                    ((long) Math.max(0, Math.min(depth, 0xFF)) << DEPTH_SHIFT) |
+                    ((long) (boundType.ordinal() + 1) << BOUND_SHIFT) |
+                    ((long) (currentAge & 0xFF) << AGE_SHIFT);
+        this.table[replaceIndex] = key ^ data;
+        this.table[replaceIndex + 1] = data;
+    }
+
+    /**
+     * Starts a new search, so entries of previous searches become the first to be replaced
+     */
+    public void newSearch() {
+        this.age = (this.age + 1) & 0xFF;
+    }
+
+    public void clear() {
+        Arrays.fill(this.table, 0L);
+        this.age = 0;
+    }
+
+    /**
+     * @return number of used entries per thousand, sampled from the first thousand entries
+     */
+    public int getUsagePermill() {
+        int sampled = Math.min(1000, this.table.length / LONGS_PER_ENTRY);
+        int used = 0;
+        for (int i = 0; i < sampled; i++)
+            if (this.table[i * LONGS_PER_ENTRY + 1] != NO_ENTRY)
+                used++;
+        return used * 1000 / sampled;
+    }
+
+    /**
+     * @return number of entries the table can hold
+     */
+    public int getCapacity() {
+        return this.table.length / LONGS_PER_ENTRY;
+    }
+
+    public static int getMove(long data) {
+        return (int) (data & 0xFFFF);
+    }
+
+    public static int getScore(long data) {
+        return (short) (data >>> SCORE_SHIFT);
+    }
+
+    public static int getDepth(long data) {
+        return (int) ((data >>> DEPTH_SHIFT) & 0xFF);
+    }
+
+    public static BoundType getBoundType(long data) {
+        return BOUND_TYPES[(int) ((data >>> BOUND_SHIFT) & 0x3) - 1];
+    }
+
+    private static int getAge(long data) {
+        return (int) ((data >>> AGE_SHIFT) & 0xFF);
+    }
+
+    /**
+     * @param move - move to remember
+     * @return 16-bit move: current coordinate in the low six bits, destination in the next six and the promotion
+     *         piece type ordinal (0 if none) in the next three, so underpromotions are told apart
+     */
+    public static int packMove(Move move) {
+        Piece.PieceType promotionType = move.getPromotionType();
+        return move.getCurrentCoordinate() | move.getDestinationCoordinate() << 6 |
+               (promotionType == null ? 0 : promotionType.ordinal()) << 12;
+    }
+
+    /**
+     * @param board - board the move was stored for
+     * @param move - move packed by packMove
+     * @return matching move of the board, or Move.NULL_MOVE
+     */
+    public static Move unpackMove(Board board, int move) {
+        if (move == NO_MOVE)
+            return Move.NULL_MOVE;
+        int promotion = (move >>> 12) & 0x7;
+        return board.getCurrentPlayer().getLegalMove(move & 0x3F, (move >>> 6) & 0x3F, promotion == 0 ? null : PIECE_TYPES[promotion]);
+    }
+
+    private int bucketIndex(long key) {
+        return ((int) (key >>> 32) & this.bucketMask) * BUCKET_SIZE * LONGS_PER_ENTRY;
+    }
+}
@@ -0,0 +1,52 @@
+package chess.engine.tablebase;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Least recently used cache of decoded tablebase blocks, shared by all tables of a Tablebase.
+ *
+ * A block is cached as the Huffman symbols it was decoded to (see PairsData), not as the values they expand
+ * to, so it takes a few ints per compressed byte. Entries are kept in access order, so the eldest entry is the
+ * least recently used one and is dropped when the cache is full. Access is synchronized; blocks are decoded
+ * outside the lock, so two threads may decode the same block at once, which costs time but gives the same
+ * symbols.
+ */
+final class BlockCache {
+    private final Map<Long, int[]> blocks;
+
+    /**
+     * @param capacity - maximal number of cached blocks
+     */
+    BlockCache(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        this.blocks = new LinkedHashMap<Long, int[]>(2 * capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @param tableId - id of the PairsData, unique within the tablebase
+     * @param block - index of the block in the table
+     * @return symbols of the block, or null if it is not cached
+     */
+    synchronized int[] get(int tableId, int block) {
+        return this.blocks.get(key(tableId, block));
+    }
+
+    synchronized void put(int tableId, int block, int[] symbols) {
+        this.blocks.put(key(tableId, block), symbols);
+    }
+
+    synchronized int size() {
+        return this.blocks.size();
+    }
+
+    private static long key(int tableId, int block) {
+        return (long) tableId << 32 | block;
+    }
+}
@@ -0,0 +1,146 @@
+package chess.engine.tablebase;
+
+import chess.engine.Alliance;
+import chess.engine.board.BoardUtils;
+import chess.engine.board.MutableBoard;
+import chess.engine.pieces.Piece;
+
+/**
+ * Material of a Syzygy table: how many pieces of every type and colour it holds, read from the file name.
+ *
+ * The name lists the pieces of both sides from the strongest one, e.g. KRPvKR; the tables are built with the
+ * first side as white. The material key packs the piece counts into 4 bits per bitboard index (see
+ * BoardUtils.pieceBitboardIndex), so it is computed from piece bitboards without creating objects. A board
+ * whose key is the mirrored key, with colours swapped, is probed in the same table with the board flipped.
+ */
+final class Material {
+    private static final int COUNT_BITS = 4;
+    private static final String PIECE_LETTERS = "PNBRQK";
+    private static final Alliance[] ALLIANCES = Alliance.values();
+    private static final Piece.PieceType[] PIECE_TYPES = Piece.PieceType.values();
+    private static final int PAWN = Piece.PieceType.PAWN.ordinal();
+    private static final int KING = Piece.PieceType.KING.ordinal();
+
+    private final String name;
+    private final long key;
+    private final long mirroredKey;
+    private final int numPieces;
+    private final boolean hasUniquePieces;
+    /** pawns of the leading colour, the one with fewer pawns but some, and of the other colour */
+    private final int[] pawnCounts = new int[2];
+
+    private Material(String name, int[] counts) {
+        this.name = name;
+        long key = 0L;
+        long mirroredKey = 0L;
+        int numPieces = 0;
+        boolean hasUniquePieces = false;
+        for (int i = 0; i < BoardUtils.NUM_PIECE_BITBOARDS; i++) {
+            int mirrored = (i + BoardUtils.NUM_PIECE_TYPES) % BoardUtils.NUM_PIECE_BITBOARDS;
+            key |= (long) counts[i] << COUNT_BITS * i;
+            mirroredKey |= (long) counts[i] << COUNT_BITS * mirrored;
+            numPieces += counts[i];
+            hasUniquePieces |= i % BoardUtils.NUM_PIECE_TYPES != KING && counts[i] == 1;
+        }
+        this.key = key;
+        this.mirroredKey = mirroredKey;
+        this.numPieces = numPieces;
+        this.hasUniquePieces = hasUniquePieces;
+
+        int whitePawns = counts[PAWN];
+        int blackPawns = counts[BoardUtils.NUM_PIECE_TYPES + PAWN];
+        boolean whiteLeads = blackPawns == 0 || (whitePawns > 0 && blackPawns >= whitePawns);
+        this.pawnCounts[0] = whiteLeads ? whitePawns : blackPawns;
+        this.pawnCounts[1] = whiteLeads ? blackPawns : whitePawns;
+    }
+
+    /**
+     * @param name - table name like KRPvKR
+     * @return material of the name, or null if it is no valid name of up to TablebaseUtils.MAX_PIECES pieces
+     */
+    static Material parse(String name) {
+        int separator = name.indexOf('v');
+        if (separator < 1 || name.length() - 1 > TablebaseUtils.MAX_PIECES)
+            return null;
+
+        int[] counts = new int[BoardUtils.NUM_PIECE_BITBOARDS];
+        for (int i = 0; i < name.length(); i++) {
+            if (i == separator)
+                continue;
+            int pieceType = PIECE_LETTERS.indexOf(name.charAt(i));
+            if (pieceType < 0)
+                return null;
+            counts[(i < separator ? 0 : BoardUtils.NUM_PIECE_TYPES) + pieceType]++;
+        }
+        if (counts[KING] != 1 || counts[BoardUtils.NUM_PIECE_TYPES + KING] != 1)
+            return null;
+        return new Material(name, counts);
+    }
+
+    /**
+     * @param board - probed board
+     * @return material key of the board
+     */
+    static long keyOf(MutableBoard board) {
+        long key = 0L;
+        for (Alliance alliance : ALLIANCES)
+            for (Piece.PieceType pieceType : PIECE_TYPES) {
+                int index = BoardUtils.pieceBitboardIndex(pieceType, alliance);
+                key |= (long) Long.bitCount(board.getPieceBitboard(pieceType, alliance)) << COUNT_BITS * index;
+            }
+        return key;
+    }
+
+    String getName() {
+        return this.name;
+    }
+
+    /**
+     * @return key with the first side of the name as white
+     */
+    long getKey() {
+        return this.key;
+    }
+
+    /**
+     * @return key with the first side of the name as black
+     */
+    long getMirroredKey() {
+        return this.mirroredKey;
+    }
+
+    /**
+     * @return true if both sides have the same pieces, then the tables hold white to move only
+     */
+    boolean isSymmetric() {
+        return this.key == this.mirroredKey;
+    }
+
+    int getNumPieces() {
+        return this.numPieces;
+    }
+
+    boolean hasPawns() {
+        return this.pawnCounts[0] > 0;
+    }
+
+    /**
+     * @return true if some piece besides the kings is the only one of its type and colour
+     */
+    boolean hasUniquePieces() {
+        return this.hasUniquePieces;
+    }
+
+    /**
+     * @param group - 0 for the leading colour, 1 for the other one
+     * @return number of pawns of the colour
+     */
+    int getPawnCount(int group) {
+        return this.pawnCounts[group];
+    }
+
+    @Override
+    public String toString() {
+        return this.name;
+    }
+}
@@ -0,0 +1,313 @@
+package chess.engine.tablebase;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * One compressed table of a Syzygy file: the values of one side to move (and, with pawns, one file of the
+ * leading pawn), indexed as described by the pieces and groups of the table.
+ *
+ * Values are compressed by recursive pairing: every symbol stands for a pair of symbols, down to the symbols
+ * standing for one value, so a symbol expands into symlen + 1 values. The symbols are Huffman coded into
+ * blocks of blockSize bytes, and blockLength tells how many values each block holds. The sparse index gives,
+ * for every span values, the block and the offset in the block of the value in the middle of the span, so
+ * finding the block of an index takes a few steps from there. Blocks are decoded when first needed and
+ * kept in the BlockCache; everything else is read from the mapped file.
+ */
+final class PairsData {
+    static final int STM = 1;
+    static final int MAPPED = 2;
+    static final int WIN_PLIES = 4;
+    static final int LOSS_PLIES = 8;
+    static final int WIDE = 16;
+    private static final int SINGLE_VALUE = 128;
+    private static final int NO_SYMBOL = 0xFFF;
+    private static final int SYMBOL_BITS = 12;
+    private static final int SYMBOL_MASK = (1 << SYMBOL_BITS) - 1;
+    private static final int SPARSE_ENTRY_SIZE = 6;
+
+    private final ByteBuffer buffer;
+    private final int id;
+
+    final int[] pieces = new int[TablebaseUtils.MAX_PIECES];
+    /** Factor of the index of every group, the last one being the number of indexes */
+    final long[] groupIdx = new long[TablebaseUtils.MAX_PIECES + 1];
+    /** Number of pieces of every group, 0 after the last one */
+    final int[] groupLen = new int[TablebaseUtils.MAX_PIECES + 1];
+    /** Offsets of the DTZ value maps of a win, loss, cursed win and blessed loss, see TableFile */
+    final int[] mapIndex = new int[4];
+
+    int flags;
+    private int blockSize;
+    private long span;
+    private int numBlocks;
+    private int minSymLen;
+    private int lowestSymOffset;
+    private long[] base64;
+    private int[] symlen;
+    private int btreeOffset;
+    private long sparseIndexSize;
+    private int blockLengthSize;
+    private int sparseIndexOffset;
+    private int blockLengthOffset;
+    private int dataOffset;
+
+    /**
+     * @param buffer - mapped file, little-endian
+     * @param id - id of the table, unique within its tablebase
+     */
+    PairsData(ByteBuffer buffer, int id) {
+        this.buffer = buffer;
+        this.id = id;
+    }
+
+    /**
+     * Splits the pieces into groups and sets the factor of each group in the index; the groups are encoded
+     * in the given order, the leading pieces or pawns being order[0] and the remaining pawns order[1]
+     */
+    void setGroups(Material material, int[] order, int file) {
+        int n = 0;
+        int firstLen = material.hasPawns() ? 0 : material.hasUniquePieces() ? 3 : 2;
+        this.groupLen[n] = 1;
+        for (int i = 1; i < material.getNumPieces(); i++) {
+            if (--firstLen > 0 || this.pieces[i] == this.pieces[i - 1])
+                this.groupLen[n]++;
+            else
+                this.groupLen[++n] = 1;
+        }
+        this.groupLen[++n] = 0;
+
+        boolean pawnsOnBothSides = material.hasPawns() && material.getPawnCount(1) > 0;
+        int next = pawnsOnBothSides ? 2 : 1;
+        int freeSquares = TablebaseUtils.NUM_SQUARES - this.groupLen[0] - (pawnsOnBothSides ? this.groupLen[1] : 0);
+        long idx = 1;
+        for (int k = 0; next < n || k == order[0] || k == order[1]; k++) {
+            if (k == order[0]) {
+                this.groupIdx[0] = idx;
+                idx *= material.hasPawns() ? TablebaseUtils.LEAD_PAWNS_SIZE[this.groupLen[0]][file] :
+                       material.hasUniquePieces() ? TablebaseUtils.UNIQUE_PIECES_PLACEMENTS : TablebaseUtils.KINGS_PLACEMENTS;
+            } else if (k == order[1]) {
+                this.groupIdx[1] = idx;
+                idx *= TablebaseUtils.BINOMIAL[this.groupLen[1]][48 - this.groupLen[0]];
+            } else {
+                this.groupIdx[next] = idx;
+                idx *= TablebaseUtils.BINOMIAL[this.groupLen[next]][freeSquares];
+                freeSquares -= this.groupLen[next++];
+            }
+        }
+        this.groupIdx[n] = idx;
+    }
+
+    /**
+     * Reads the sizes and the Huffman code of the table
+     * @param position - offset of the sizes in the file
+     * @return offset following them
+     */
+    int readSizes(int position) {
+        this.flags = readByte(position++);
+        if ((this.flags & SINGLE_VALUE) != 0) {
+            this.minSymLen = readByte(position++); // the single value
+            return position;
+        }
+
+        int groups = 0;
+        while (this.groupLen[groups] != 0)
+            groups++;
+        long size = this.groupIdx[groups];
+
+        this.blockSize = 1 << readByte(position++);
+        this.span = 1L << readByte(position++);
+        this.sparseIndexSize = (size + this.span - 1) / this.span;
+        int padding = readByte(position++);
+        this.numBlocks = this.buffer.getInt(position);
+        position += 4;
+        this.blockLengthSize = this.numBlocks + padding;
+        int maxSymLen = readByte(position++);
+        this.minSymLen = readByte(position++);
+        if (this.numBlocks < 0 || this.minSymLen < 1 || maxSymLen < this.minSymLen || maxSymLen > 32)
+            throw new IllegalArgumentException("Broken tablebase table sizes at " + position);
+        this.lowestSymOffset = position;
+
+        // canonical Huffman code: longer codes have lower values, base64[l] is the lowest code of length
+        // minSymLen + l padded to 64 bits, so the length of a code is the first l with code >= base64[l]
+        this.base64 = new long[maxSymLen - this.minSymLen + 1];
+        for (int i = this.base64.length - 2; i >= 0; i--)
+            this.base64[i] = (this.base64[i + 1] + lowestSym(i) - lowestSym(i + 1)) / 2;
+        for (int i = 0; i < this.base64.length; i++)
+            this.base64[i] <<= 64 - i - this.minSymLen;
+        position += 2 * this.base64.length;
+
+        this.symlen = new int[readShort(position)];
+        position += 2;
+        this.btreeOffset = position;
+        boolean[] visited = new boolean[this.symlen.length];
+        for (int symbol = 0; symbol < this.symlen.length; symbol++)
+            if (!visited[symbol])
+                this.symlen[symbol] = setSymlen(symbol, visited);
+        return position + 3 * this.symlen.length + (this.symlen.length & 1);
+    }
+
+    private int setSymlen(int symbol, boolean[] visited) {
+        visited[symbol] = true;
+        int right = right(symbol);
+        if (right == NO_SYMBOL)
+            return 0;
+        int left = left(symbol);
+        if (!visited[left])
+            this.symlen[left] = setSymlen(left, visited);
+        if (!visited[right])
+            this.symlen[right] = setSymlen(right, visited);
+        return this.symlen[left] + this.symlen[right] + 1;
+    }
+
+    /**
+     * @return offset following the sparse index
+     */
+    int setSparseIndex(int position) {
+        this.sparseIndexOffset = position;
+        return checkedOffset(position + SPARSE_ENTRY_SIZE * this.sparseIndexSize);
+    }
+
+    /**
+     * @return offset following the block lengths
+     */
+    int setBlockLengths(int position) {
+        this.blockLengthOffset = position;
+        return checkedOffset(position + 2L * this.blockLengthSize);
+    }
+
+    /**
+     * @param position - offset of the blocks, aligned to 64 bytes
+     * @return offset following the blocks
+     */
+    int setData(int position) {
+        this.dataOffset = position;
+        return checkedOffset(position + (long) this.numBlocks * this.blockSize);
+    }
+
+    /**
+     * @param index - index of the position in the table
+     * @param cache - cache of decoded blocks
+     * @return stored value
+     */
+    int decompress(long index, BlockCache cache) {
+        if ((this.flags & SINGLE_VALUE) != 0)
+            return this.minSymLen;
+
+        long k = index / this.span;
+        int entry = this.sparseIndexOffset + (int) k * SPARSE_ENTRY_SIZE;
+        int block = this.buffer.getInt(entry);
+        int offset = readShort(entry + 4) + (int) (index % this.span - this.span / 2);
+        while (offset < 0)
+            offset += blockLength(--block) + 1;
+        while (offset > blockLength(block))
+            offset -= blockLength(block++) + 1;
+
+        int[] symbols = cache.get(this.id, block);
+        if (symbols == null) {
+            symbols = decodeBlock(block);
+            cache.put(this.id, block, symbols);
+        }
+
+        // first symbol whose values end after the offset
+        int low = 0;
+        int high = symbols.length - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (symbols[middle] >>> SYMBOL_BITS > offset)
+                high = middle;
+            else
+                low = middle + 1;
+        }
+        int symbol = symbols[low] & SYMBOL_MASK;
+        if (low > 0)
+            offset -= symbols[low - 1] >>> SYMBOL_BITS;
+
+        while (this.symlen[symbol] != 0) {
+            int left = left(symbol);
+            if (offset < this.symlen[left] + 1) {
+                symbol = left;
+            } else {
+                offset -= this.symlen[left] + 1;
+                symbol = right(symbol);
+            }
+        }
+        return left(symbol);
+    }
+
+    /**
+     * Decodes the Huffman symbols of a block
+     * @return symbol of each code with the number of values up to and including it, (end << 12) | symbol
+     */
+    private int[] decodeBlock(int block) {
+        int values = blockLength(block) + 1;
+        int position = this.dataOffset + block * this.blockSize;
+        long bits = readBigEndianInt(position) << 32 | readBigEndianInt(position + 4);
+        position += 8;
+        int bitCount = 64;
+
+        int[] symbols = new int[this.blockSize * 8 / this.minSymLen + 1];
+        int count = 0;
+        for (int end = 0; end < values; ) {
+            int length = 0;
+            while (Long.compareUnsigned(bits, this.base64[length]) < 0)
+                length++;
+            int symbol = (int) ((bits - this.base64[length]) >>> (64 - length - this.minSymLen)) + lowestSym(length);
+            if (symbol >= this.symlen.length || count == symbols.length)
+                throw new IllegalStateException("Broken tablebase block " + block);
+            end += this.symlen[symbol] + 1;
+            symbols[count++] = end << SYMBOL_BITS | symbol;
+
+            length += this.minSymLen;
+            bits <<= length;
+            bitCount -= length;
+            if (bitCount <= 32) {
+                bitCount += 32;
+                bits |= readBigEndianInt(position) << (64 - bitCount);
+                position += 4;
+            }
+        }
+        return Arrays.copyOf(symbols, count);
+    }
+
+    private int blockLength(int block) {
+        return readShort(this.blockLengthOffset + 2 * block);
+    }
+
+    private int lowestSym(int length) {
+        return readShort(this.lowestSymOffset + 2 * length);
+    }
+
+    private int left(int symbol) {
+        int position = this.btreeOffset + 3 * symbol;
+        return (readByte(position + 1) & 0xF) << 8 | readByte(position);
+    }
+
+    private int right(int symbol) {
+        int position = this.btreeOffset + 3 * symbol;
+        return readByte(position + 2) << 4 | readByte(position + 1) >>> 4;
+    }
+
+    private int readByte(int position) {
+        return this.buffer.get(position) & 0xFF;
+    }
+
+    private int readShort(int position) {
+        return this.buffer.getShort(position) & 0xFFFF;
+    }
+
+    /**
+     * @return unsigned big-endian int, 0 past the end of the file, where the last codes of a block may be read
+     */
+    private long readBigEndianInt(int position) {
+        if (position + 4 > this.buffer.limit())
+            return 0L;
+        return Integer.reverseBytes(this.buffer.getInt(position)) & 0xFFFFFFFFL;
+    }
+
+    private int checkedOffset(long position) {
+        if (position > this.buffer.limit())
+            throw new IllegalArgumentException("Broken tablebase file, table " + this.id + " ends past the file");
+        return (int) position;
+    }
+}
@@ -0,0 +1,313 @@
+package chess.engine.tablebase;
+
+import chess.engine.Alliance;
+import chess.engine.board.BoardUtils;
+import chess.engine.board.MutableBoard;
+import chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Syzygy tablebase file of one material, memory-mapped: a WDL file (.rtbw) or a DTZ file (.rtbz).
+ *
+ * After the magic and a flags byte, the file lists for each table the order of its pieces and of their
+ * groups, then the sizes and Huffman codes of the tables, the DTZ value maps, the sparse indexes, the block
+ * lengths and the compressed blocks (see PairsData). A WDL file of a material which is not symmetric holds
+ * one table per side to move, a DTZ file only one table for one of the sides. With pawns there are four
+ * times as many tables, one per file a-d of the leading pawn.
+ *
+ * A position is indexed after mirroring it so that the table material is white (the first side of the file
+ * name), and its leading piece stands in the a1-d1-d4 triangle or its leading pawn on files a-d.
+ */
+final class TableFile {
+    static final String WDL_EXTENSION = ".rtbw";
+    static final String DTZ_EXTENSION = ".rtbz";
+    /** Returned when a DTZ file holds the other side to move only */
+    static final int CHANGE_SIDE_TO_MOVE = Integer.MIN_VALUE;
+    private static final int WDL_MAGIC = 0x5D23E871;
+    private static final int DTZ_MAGIC = 0xA50C66D7;
+    private static final int HAS_PAWNS = 2;
+    private static final int NO_GROUP = 0xF;
+    private static final int FILES_WITH_PAWNS = 4;
+    /** Entry of the DTZ value maps, by WDL value from -2 to 2: loss, blessed loss, draw, cursed win, win */
+    private static final int[] WDL_MAP = {1, 3, 0, 2, 0};
+    private static final int PAWN = Piece.PieceType.PAWN.ordinal();
+
+    private final Material material;
+    private final boolean isDtz;
+    private final ByteBuffer buffer;
+    /** Tables by side to move and file of the leading pawn */
+    private final PairsData[][] pairsData;
+
+    /**
+     * @param path - tablebase file
+     * @param material - material the file is expected to hold
+     * @param isDtz - true for a DTZ file
+     * @param id - id of the file, unique within its tablebase
+     * @throws IOException if the file cannot be mapped
+     */
+    TableFile(Path path, Material material, boolean isDtz, int id) throws IOException {
+        this.material = material;
+        this.isDtz = isDtz;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IllegalArgumentException("Tablebase file too large: " + path);
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        if (this.buffer.limit() % 64 != 16 || this.buffer.getInt(0) != (isDtz ? DTZ_MAGIC : WDL_MAGIC) ||
+                ((this.buffer.get(4) & HAS_PAWNS) != 0) != material.hasPawns())
+            throw new IllegalArgumentException("Not a tablebase file of " + material + ": " + path);
+
+        int sides = isDtz || material.isSymmetric() ? 1 : 2;
+        int files = material.hasPawns() ? FILES_WITH_PAWNS : 1;
+        this.pairsData = new PairsData[sides][files];
+        boolean pawnsOnBothSides = material.hasPawns() && material.getPawnCount(1) > 0;
+
+        int position = 5;
+        int[][] order = new int[2][2];
+        for (int file = 0; file < files; file++) {
+            for (int side = 0; side < sides; side++)
+                this.pairsData[side][file] = new PairsData(this.buffer, id * 2 * FILES_WITH_PAWNS + side * FILES_WITH_PAWNS + file);
+
+            int first = readByte(position);
+            int second = pawnsOnBothSides ? readByte(position + 1) : NO_GROUP << 4 | NO_GROUP;
+            order[0][0] = first & 0xF;
+            order[0][1] = second & 0xF;
+            order[1][0] = first >>> 4;
+            order[1][1] = second >>> 4;
+            position += pawnsOnBothSides ? 2 : 1;
+
+            for (int k = 0; k < material.getNumPieces(); k++, position++)
+                for (int side = 0; side < sides; side++)
+                    this.pairsData[side][file].pieces[k] = side == 0 ? readByte(position) & 0xF : readByte(position) >>> 4;
+            for (int side = 0; side < sides; side++)
+                this.pairsData[side][file].setGroups(material, order[side], file);
+        }
+        position += position & 1;
+
+        for (int file = 0; file < files; file++)
+            for (int side = 0; side < sides; side++)
+                position = this.pairsData[side][file].readSizes(position);
+        if (isDtz)
+            position = readDtzMaps(position);
+        for (int file = 0; file < files; file++)
+            for (int side = 0; side < sides; side++)
+                position = this.pairsData[side][file].setSparseIndex(position);
+        for (int file = 0; file < files; file++)
+            for (int side = 0; side < sides; side++)
+                position = this.pairsData[side][file].setBlockLengths(position);
+        for (int file = 0; file < files; file++)
+            for (int side = 0; side < sides; side++)
+                position = this.pairsData[side][file].setData((position + 63) & ~63);
+    }
+
+    /**
+     * Reads where the value maps of every table start: a DTZ table stores small numbers which the map of the
+     * WDL result turns into distances, one byte or, with the WIDE flag, one 16-bit value each
+     * @return offset following the maps
+     */
+    private int readDtzMaps(int position) {
+        for (PairsData data : this.pairsData[0]) {
+            if ((data.flags & PairsData.MAPPED) == 0)
+                continue;
+            if ((data.flags & PairsData.WIDE) != 0) {
+                position += position & 1;
+                for (int i = 0; i < data.mapIndex.length; i++) {
+                    data.mapIndex[i] = position + 2;
+                    position += 2 * (this.buffer.getShort(position) & 0xFFFF) + 2;
+                }
+            } else {
+                for (int i = 0; i < data.mapIndex.length; i++) {
+                    data.mapIndex[i] = position + 1;
+                    position += readByte(position) + 1;
+                }
+            }
+        }
+        return position + (position & 1);
+    }
+
+    /**
+     * @param board - probed board, of this material
+     * @param key - material key of the board
+     * @param wdl - WDL value of the board from -2 to 2, needed by a DTZ file only
+     * @param squares - buffer of TablebaseUtils.MAX_PIECES squares
+     * @param pieces - buffer of TablebaseUtils.MAX_PIECES pieces
+     * @param cache - cache of decoded blocks
+     * @return WDL value from -2 to 2, or DTZ in plies rounded up to whole moves unless the table stores plies,
+     *         or CHANGE_SIDE_TO_MOVE
+     */
+    int probe(MutableBoard board, long key, int wdl, int[] squares, int[] pieces, BlockCache cache) {
+        boolean flip = key != this.material.getKey() || (this.material.isSymmetric() && board.getSideToMove().isBlack());
+        int flipColor = flip ? 8 : 0;
+        int flipSquares = flip ? 56 : 0;
+        int stm = (flip ? 1 : 0) ^ (board.getSideToMove().isBlack() ? 1 : 0);
+
+        int size = 0;
+        int leadPawnsCount = 0;
+        int tbFile = 0;
+        long leadPawns = 0L;
+        if (this.material.hasPawns()) {
+            int leadPawn = this.pairsData[0][0].pieces[0] ^ flipColor;
+            leadPawns = board.getPieceBitboard(Piece.PieceType.PAWN, (leadPawn & 8) == 0 ? Alliance.WHITE : Alliance.BLACK);
+            for (long pawns = leadPawns; pawns != 0; pawns &= pawns - 1)
+                squares[size++] = TablebaseUtils.toSquare(Long.numberOfTrailingZeros(pawns)) ^ flipSquares;
+            leadPawnsCount = size;
+
+            int lead = 0;
+            for (int i = 1; i < leadPawnsCount; i++)
+                if (TablebaseUtils.MAP_PAWNS[squares[i]] > TablebaseUtils.MAP_PAWNS[squares[lead]])
+                    lead = i;
+            swap(squares, 0, lead);
+            tbFile = Math.min(TablebaseUtils.file(squares[0]), 7 - TablebaseUtils.file(squares[0]));
+        }
+
+        PairsData data = this.pairsData[stm % this.pairsData.length][tbFile];
+        if (this.isDtz && (data.flags & PairsData.STM) != stm && (!this.material.isSymmetric() || this.material.hasPawns()))
+            return CHANGE_SIDE_TO_MOVE;
+
+        for (long others = board.getOccupancy() & ~leadPawns; others != 0; others &= others - 1) {
+            int coordinate = Long.numberOfTrailingZeros(others);
+            squares[size] = TablebaseUtils.toSquare(coordinate) ^ flipSquares;
+            pieces[size++] = syzygyPiece(board.getPieceAt(coordinate)) ^ flipColor;
+        }
+
+        // same order of pieces as the table
+        for (int i = leadPawnsCount; i < size - 1; i++)
+            for (int j = i + 1; j < size; j++)
+                if (data.pieces[i] == pieces[j]) {
+                    swap(pieces, i, j);
+                    swap(squares, i, j);
+                    break;
+                }
+
+        if (TablebaseUtils.file(squares[0]) > 3)
+            for (int i = 0; i < size; i++)
+                squares[i] = TablebaseUtils.flipFile(squares[i]);
+
+        long index = this.material.hasPawns() ? leadPawnsIndex(squares, leadPawnsCount) : leadPiecesIndex(data, squares, size);
+        index *= data.groupIdx[0];
+
+        int groupStart = data.groupLen[0];
+        boolean remainingPawns = this.material.hasPawns() && this.material.getPawnCount(1) > 0;
+        for (int next = 1; data.groupLen[next] != 0; next++) {
+            int groupEnd = groupStart + data.groupLen[next];
+            sort(squares, groupStart, groupEnd, false);
+            long n = 0;
+            for (int i = groupStart; i < groupEnd; i++) {
+                int adjust = 0;
+                for (int j = 0; j < groupStart; j++)
+                    if (squares[i] > squares[j])
+                        adjust++;
+                n += TablebaseUtils.BINOMIAL[i - groupStart + 1][squares[i] - adjust - (remainingPawns ? 8 : 0)];
+            }
+            remainingPawns = false;
+            index += n * data.groupIdx[next];
+            groupStart = groupEnd;
+        }
+
+        int value = data.decompress(index, cache);
+        return this.isDtz ? mapDtz(data, value, wdl) : value - 2;
+    }
+
+    /**
+     * @return index of the leading pawns, the one on squares[0] and the others by ascending MAP_PAWNS
+     */
+    private static long leadPawnsIndex(int[] squares, int leadPawnsCount) {
+        long index = TablebaseUtils.LEAD_PAWN_INDEX[leadPawnsCount][squares[0]];
+        sort(squares, 1, leadPawnsCount, true);
+        for (int i = 1; i < leadPawnsCount; i++)
+            index += TablebaseUtils.BINOMIAL[i][TablebaseUtils.MAP_PAWNS[squares[i]]];
+        return index;
+    }
+
+    /**
+     * Mirrors the board so that the leading piece is on ranks 1-4 and the leading group below the a1-h8
+     * diagonal where possible
+     * @return index of the three unique pieces or of the two kings leading the pieces
+     */
+    private long leadPiecesIndex(PairsData data, int[] squares, int size) {
+        if (TablebaseUtils.rank(squares[0]) > 3)
+            for (int i = 0; i < size; i++)
+                squares[i] = TablebaseUtils.flipRank(squares[i]);
+
+        for (int i = 0; i < data.groupLen[0]; i++) {
+            if (TablebaseUtils.offDiagonal(squares[i]) == 0)
+                continue;
+            if (TablebaseUtils.offDiagonal(squares[i]) > 0)
+                for (int j = i; j < size; j++)
+                    squares[j] = TablebaseUtils.flipDiagonal(squares[j]);
+            break;
+        }
+
+        if (!this.material.hasUniquePieces())
+            return TablebaseUtils.MAP_KK[TablebaseUtils.MAP_A1D1D4[squares[0]]][squares[1]];
+
+        int adjust1 = squares[1] > squares[0] ? 1 : 0;
+        int adjust2 = (squares[2] > squares[0] ? 1 : 0) + (squares[2] > squares[1] ? 1 : 0);
+        if (TablebaseUtils.offDiagonal(squares[0]) != 0) // first piece below the diagonal
+            return (TablebaseUtils.MAP_A1D1D4[squares[0]] * 63L + (squares[1] - adjust1)) * 62 + squares[2] - adjust2;
+        if (TablebaseUtils.offDiagonal(squares[1]) != 0) // first on the diagonal, second below
+            return (6 * 63 + TablebaseUtils.rank(squares[0]) * 28 + TablebaseUtils.MAP_B1H1H7[squares[1]]) * 62L +
+                   squares[2] - adjust2;
+        if (TablebaseUtils.offDiagonal(squares[2]) != 0) // first two on the diagonal, third below
+            return 6 * 63 * 62 + 4 * 28 * 62 + TablebaseUtils.rank(squares[0]) * 7 * 28 +
+                   (TablebaseUtils.rank(squares[1]) - adjust1) * 28 + TablebaseUtils.MAP_B1H1H7[squares[2]];
+        return 6 * 63 * 62 + 4 * 28 * 62 + 4 * 7 * 28 + TablebaseUtils.rank(squares[0]) * 7 * 6 +
+               (TablebaseUtils.rank(squares[1]) - adjust1) * 6 + TablebaseUtils.rank(squares[2]) - adjust2;
+    }
+
+    /**
+     * @return plies to zeroing of a stored DTZ value, which is in moves unless the table flags tell plies
+     */
+    private int mapDtz(PairsData data, int value, int wdl) {
+        if ((data.flags & PairsData.MAPPED) != 0) {
+            int map = data.mapIndex[WDL_MAP[wdl + 2]];
+            value = (data.flags & PairsData.WIDE) != 0 ? this.buffer.getShort(map + 2 * value) & 0xFFFF : readByte(map + value);
+        }
+        if ((wdl == 2 && (data.flags & PairsData.WIN_PLIES) == 0) || (wdl == -2 && (data.flags & PairsData.LOSS_PLIES) == 0) ||
+                wdl == 1 || wdl == -1)
+            value *= 2;
+        return value + 1;
+    }
+
+    /**
+     * @param piece - bitboard index of a piece
+     * @return Syzygy code of the piece: 1 to 6 for a white pawn to king, 9 to 14 for black
+     */
+    private static int syzygyPiece(int piece) {
+        return piece % BoardUtils.NUM_PIECE_TYPES - PAWN + 1 + (piece / BoardUtils.NUM_PIECE_TYPES) * 8;
+    }
+
+    /**
+     * Insertion sort of squares[from..to), by MAP_PAWNS if byMapPawns is set, else by square
+     */
+    private static void sort(int[] squares, int from, int to, boolean byMapPawns) {
+        for (int i = from + 1; i < to; i++) {
+            int square = squares[i];
+            int key = byMapPawns ? TablebaseUtils.MAP_PAWNS[square] : square;
+            int j = i - 1;
+            for (; j >= from && (byMapPawns ? TablebaseUtils.MAP_PAWNS[squares[j]] : squares[j]) > key; j--)
+                squares[j + 1] = squares[j];
+            squares[j + 1] = square;
+        }
+    }
+
+    private static void swap(int[] values, int i, int j) {
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+
+    private int readByte(int position) {
+        return this.buffer.get(position) & 0xFF;
+    }
+
+    Material getMaterial() {
+        return this.material;
+    }
+}
@@ -0,0 +1,314 @@
+package chess.engine.tablebase;
+
+import chess.engine.board.Board;
+import chess.engine.board.BoardUtils;
+import chess.engine.board.MoveEncoding;
+import chess.engine.board.MutableBoard;
+import chess.engine.pieces.Piece;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Syzygy endgame tablebase: exact win/draw/loss results and distances to zeroing of boards with few pieces.
+ *
+ * Tables are read from a local directory of Syzygy files, a WDL file (KRvK.rtbw) and optionally a DTZ file
+ * (KRvK.rtbz) per material, found when the tablebase is created; a material with colours swapped (KvKR) is
+ * probed in the same files with the board flipped. Files are memory-mapped when first needed, and blocks are
+ * Huffman decoded on demand into a least recently used cache of blocks shared by all tables. The tablebase
+ * may be probed from several threads, each with its own TablebaseProbe.
+ *
+ * The tables hold no boards with a possible en passant capture, and DTZ tables hold one side to move only,
+ * so a probe searches the captures (and for DTZ the pawn moves) of the board first, as Syzygy probing does.
+ * Results assume the halfmove clock is zero: a cursed win is a win the fifty-move rule turns into a draw.
+ * Boards with castling rights are not probed.
+ */
+public class Tablebase {
+    /** Pieces of the largest Syzygy tables, kings included */
+    public static final int MAX_PIECES = TablebaseUtils.MAX_PIECES;
+    private static final int OK = 0;
+    private static final int FAIL = 1;
+    private static final int ZEROING_BEST_MOVE = 2;
+    private static final int CHANGE_SIDE_TO_MOVE = 3;
+    private static final int LOSS = -2;
+    private static final int BLESSED_LOSS = -1;
+    private static final int DRAW = 0;
+    private static final int CURSED_WIN = 1;
+    private static final int WIN = 2;
+    private static final int NO_DTZ = 0xFFFF;
+    private static final int PAWN = Piece.PieceType.PAWN.ordinal();
+
+    private final Path directory;
+    private final int maxPieces;
+    private final BlockCache cache;
+    /** Materials of the WDL files, by both material keys */
+    private final Map<Long, Material> materials;
+    private final ConcurrentMap<String, Optional<TableFile>> tables = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTableId = new AtomicInteger();
+
+    /**
+     * @param directory - directory of the tablebase files
+     * @param maxPieces - boards with more pieces, kings included, are not probed
+     * @param cachedBlocks - number of decoded blocks kept in memory
+     * @throws UncheckedIOException if the directory cannot be listed
+     */
+    public Tablebase(Path directory, int maxPieces, int cachedBlocks) {
+        if (!Files.isDirectory(directory))
+            throw new IllegalArgumentException("Not a directory: " + directory);
+        this.directory = directory;
+        this.cache = new BlockCache(cachedBlocks);
+
+        Map<Long, Material> materials = new HashMap<>();
+        int largestTable = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + TableFile.WDL_EXTENSION)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                Material material = Material.parse(fileName.substring(0, fileName.length() - TableFile.WDL_EXTENSION.length()));
+                if (material == null || material.getNumPieces() > maxPieces)
+                    continue;
+                materials.put(material.getKey(), material);
+                materials.put(material.getMirroredKey(), material);
+                largestTable = Math.max(largestTable, material.getNumPieces());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.materials = Collections.unmodifiableMap(materials);
+        this.maxPieces = largestTable;
+    }
+
+    public Path getDirectory() {
+        return this.directory;
+    }
+
+    /**
+     * @return pieces of the largest table found, up to the maximum given to the constructor
+     */
+    public int getMaxPieces() {
+        return this.maxPieces;
+    }
+
+    /**
+     * @param board - probed board
+     * @return number of pieces of both players, kings included
+     */
+    public static int countPieces(Board board) {
+        return board.getWhitePieces().size() + board.getBlackPieces().size();
+    }
+
+    /**
+     * Probes the result and the distance to zeroing of a board at once
+     * @param board - probed board
+     * @param probe - filled with the result, see TablebaseProbe
+     * @return true if the result of the board is known
+     */
+    public boolean probe(Board board, TablebaseProbe probe) {
+        probe.setResult(Wdl.UNKNOWN, TablebaseProbe.UNKNOWN_DTZ);
+        if (countPieces(board) > this.maxPieces || board.getCastlingRights() != 0)
+            return false;
+
+        MutableBoard mutableBoard = probe.board;
+        mutableBoard.setPosition(board);
+        probe.state = OK;
+        int wdl = search(mutableBoard, probe, true);
+        if (probe.state == FAIL)
+            return false;
+        int dtz = probeDtz(mutableBoard, probe, wdl);
+        probe.setResult(Wdl.ofValue(wdl), probe.state == FAIL ? TablebaseProbe.UNKNOWN_DTZ : dtz);
+        return true;
+    }
+
+    /**
+     * Probes the result of a board only, without its distance to zeroing, so no DTZ table is read
+     * @param board - probed board
+     * @param probe - filled with the result, its DTZ is UNKNOWN_DTZ
+     * @return true if the result of the board is known
+     */
+    public boolean probeWdl(Board board, TablebaseProbe probe) {
+        probe.setResult(Wdl.UNKNOWN, TablebaseProbe.UNKNOWN_DTZ);
+        if (countPieces(board) > this.maxPieces || board.getCastlingRights() != 0)
+            return false;
+
+        MutableBoard mutableBoard = probe.board;
+        mutableBoard.setPosition(board);
+        probe.state = OK;
+        int wdl = search(mutableBoard, probe, false);
+        if (probe.state == FAIL)
+            return false;
+        probe.setResult(Wdl.ofValue(wdl), TablebaseProbe.UNKNOWN_DTZ);
+        return true;
+    }
+
+    /**
+     * Searches the captures, and the pawn moves if checkZeroing is set, before probing the WDL table, since the
+     * table may hold a wrong value when the best move is one of them
+     * @return WDL value of the board from -2 to 2; probe.state is ZEROING_BEST_MOVE if a searched move is best
+     */
+    private int search(MutableBoard board, TablebaseProbe probe, boolean checkZeroing) {
+        int bestValue = LOSS;
+        int[] moves = probe.getMoves(board.getPly());
+        int totalCount = board.generateLegalMoves(moves);
+        int moveCount = 0;
+        for (int i = 0; i < totalCount; i++) {
+            int move = moves[i];
+            if (!MoveEncoding.isCapture(move) && (!checkZeroing || !isPawnMove(board, move)))
+                continue;
+
+            moveCount++;
+            board.makeMove(move);
+            int value = -search(board, probe, false);
+            board.unmakeMove();
+            if (probe.state == FAIL)
+                return DRAW;
+            if (value > bestValue) {
+                bestValue = value;
+                if (value >= WIN) {
+                    probe.state = ZEROING_BEST_MOVE;
+                    return value;
+                }
+            }
+        }
+
+        // with every move searched the table is not needed, nor right if the board allows an en passant capture
+        boolean noMoreMoves = moveCount > 0 && moveCount == totalCount;
+        int value = bestValue;
+        if (!noMoreMoves) {
+            value = probeTable(board, probe, false, DRAW);
+            if (probe.state == FAIL)
+                return DRAW;
+        }
+
+        if (bestValue >= value) {
+            probe.state = bestValue > DRAW || noMoreMoves ? ZEROING_BEST_MOVE : OK;
+            return bestValue;
+        }
+        probe.state = OK;
+        return value;
+    }
+
+    /**
+     * @param wdl - WDL value of the board, from search with checkZeroing
+     * @return DTZ of the board, see TablebaseProbe.getDtz; probe.state is FAIL if a DTZ table is missing
+     */
+    private int probeDtz(MutableBoard board, TablebaseProbe probe, int wdl) {
+        if (wdl == DRAW)
+            return 0;
+        if (probe.state == ZEROING_BEST_MOVE)
+            return dtzBeforeZeroing(wdl);
+
+        int dtz = probeTable(board, probe, true, wdl);
+        if (probe.state == FAIL)
+            return 0;
+        if (probe.state != CHANGE_SIDE_TO_MOVE)
+            return (dtz + (wdl == CURSED_WIN || wdl == BLESSED_LOSS ? 100 : 0)) * Integer.signum(wdl);
+
+        // the table holds the other side to move: the best move of a one-ply search
+        int minDtz = NO_DTZ;
+        int[] moves = probe.getMoves(board.getPly());
+        int count = board.generateLegalMoves(moves);
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            boolean isZeroing = MoveEncoding.isCapture(move) || isPawnMove(board, move);
+            board.makeMove(move);
+            if (isZeroing) {
+                // the move itself zeroes, so its DTZ is the one before zeroing; the search tells the result
+                dtz = -dtzBeforeZeroing(search(board, probe, false));
+            } else {
+                probe.state = OK;
+                int childWdl = search(board, probe, true);
+                dtz = probe.state == FAIL ? 0 : -probeDtz(board, probe, childWdl);
+            }
+            if (dtz == 1 && board.isInCheck(board.getSideToMove()) && board.generateLegalMoves(probe.getMoves(board.getPly())) == 0)
+                minDtz = 1; // the move mates
+            if (!isZeroing)
+                dtz += Integer.signum(dtz);
+            if (dtz < minDtz && Integer.signum(dtz) == Integer.signum(wdl))
+                minDtz = dtz;
+            board.unmakeMove();
+            if (probe.state == FAIL)
+                return 0;
+        }
+        return minDtz == NO_DTZ ? -1 : minDtz;
+    }
+
+    /**
+     * @return value stored for the board in its WDL or DTZ table; probe.state is FAIL if there is no such table
+     *         and CHANGE_SIDE_TO_MOVE if the DTZ table holds the other side to move only
+     */
+    private int probeTable(MutableBoard board, TablebaseProbe probe, boolean isDtz, int wdl) {
+        if (Long.bitCount(board.getOccupancy()) == 2) // KvK
+            return DRAW;
+
+        long key = Material.keyOf(board);
+        Material material = this.materials.get(key);
+        Optional<TableFile> table = material == null ? Optional.empty() : getTable(material, isDtz);
+        if (!table.isPresent()) {
+            probe.state = FAIL;
+            return DRAW;
+        }
+        int value = table.get().probe(board, key, wdl, probe.squares, probe.pieces, this.cache);
+        if (value == TableFile.CHANGE_SIDE_TO_MOVE)
+            probe.state = CHANGE_SIDE_TO_MOVE;
+        return value;
+    }
+
+    private static int dtzBeforeZeroing(int wdl) {
+        switch (wdl) {
+            case WIN:
+                return 1;
+            case CURSED_WIN:
+                return 101;
+            case BLESSED_LOSS:
+                return -101;
+            case LOSS:
+                return -1;
+            default:
+                return 0;
+        }
+    }
+
+    private static boolean isPawnMove(MutableBoard board, int move) {
+        return board.getPieceAt(MoveEncoding.getFrom(move)) % BoardUtils.NUM_PIECE_TYPES == PAWN;
+    }
+
+    /**
+     * @return number of decoded blocks in the cache
+     */
+    public int getCachedBlocks() {
+        return this.cache.size();
+    }
+
+    private Optional<TableFile> getTable(Material material, boolean isDtz) {
+        String fileName = material.getName() + (isDtz ? TableFile.DTZ_EXTENSION : TableFile.WDL_EXTENSION);
+        Optional<TableFile> table = this.tables.get(fileName);
+        if (table != null)
+            return table;
+        return this.tables.computeIfAbsent(fileName, name -> openTable(name, material, isDtz));
+    }
+
+    private Optional<TableFile> openTable(String fileName, Material material, boolean isDtz) {
+        Path path = this.directory.resolve(fileName);
+        if (!Files.isRegularFile(path))
+            return Optional.empty();
+        try {
+            return Optional.of(new TableFile(path, material, isDtz, this.nextTableId.getAndIncrement()));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Tablebase " + this.directory + " up to " + this.maxPieces + " pieces";
+    }
+}
@@ -0,0 +1,64 @@
+package chess.engine.tablebase;
+
+import chess.engine.board.Board;
+import chess.engine.board.MutableBoard;
+
+/**
+ * Result of a tablebase probe, with the buffers the probe works in, so a search probes without allocating.
+ *
+ * One instance is filled by Tablebase.probe or probeWdl and reused for the next probe; it must not be shared
+ * between threads.
+ */
+public final class TablebaseProbe {
+    /** DTZ of a board whose DTZ table is missing */
+    public static final int UNKNOWN_DTZ = Integer.MIN_VALUE;
+    /** Plies the probe may search below the probed board: captures down to two kings, and one quiet move */
+    private static final int MAX_PLIES = 4 * TablebaseUtils.MAX_PIECES;
+
+    final MutableBoard board = new MutableBoard(Board.createStandartdBoard());
+    final int[] squares = new int[TablebaseUtils.MAX_PIECES];
+    final int[] pieces = new int[TablebaseUtils.MAX_PIECES];
+    private final int[][] moveBuffers = new int[MAX_PLIES][MutableBoard.MAX_MOVES];
+
+    int state;
+    private Wdl wdl = Wdl.UNKNOWN;
+    private int dtz = UNKNOWN_DTZ;
+
+    /**
+     * @return result of the probed board for the player to move, Wdl.UNKNOWN if it is not in the tablebase
+     */
+    public Wdl getWdl() {
+        return this.wdl;
+    }
+
+    /**
+     * @return plies to the next capture or pawn move with best play, positive for a win and negative for a
+     *         loss, counting 100 more for a cursed win or blessed loss; 0 for a draw; UNKNOWN_DTZ if the
+     *         result is unknown or the DTZ table is missing. It may be one ply more than the real distance
+     *         when the table stores moves.
+     */
+    public int getDtz() {
+        return this.dtz;
+    }
+
+    public boolean hasDtz() {
+        return this.dtz != UNKNOWN_DTZ;
+    }
+
+    void setResult(Wdl wdl, int dtz) {
+        this.wdl = wdl;
+        this.dtz = dtz;
+    }
+
+    /**
+     * @return move buffer of the ply below the probed board
+     */
+    int[] getMoves(int ply) {
+        return this.moveBuffers[ply];
+    }
+
+    @Override
+    public String toString() {
+        return this.wdl.isKnown() ? this.wdl + (hasDtz() ? " dtz " + this.dtz : "") : this.wdl.toString();
+    }
+}
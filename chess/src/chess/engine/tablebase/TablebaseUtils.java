@@ -0,0 +1,129 @@
+package chess.engine.tablebase;
+
+/**
+ * Tables of the Syzygy position indexing, all indexed by Syzygy square (0 is a1, 7 is h1, 63 is h8).
+ *
+ * Boards are mirrored so that the first piece stands in the a1-d1-d4 triangle (without pawns) or on files a-d
+ * (with pawns); the tables map those squares and the squares of the other pieces to consecutive numbers.
+ */
+final class TablebaseUtils {
+    /** Pieces of the largest Syzygy tables, kings included */
+    static final int MAX_PIECES = 7;
+    static final int NUM_SQUARES = 64;
+    /** Number of placements of three unique pieces, the first one in the a1-d1-d4 triangle */
+    static final int UNIQUE_PIECES_PLACEMENTS = 31332;
+    /** Number of legal placements of two kings, the first one in the a1-d1-d4 triangle */
+    static final int KINGS_PLACEMENTS = 462;
+
+    /** Squares a2-h7 to 47..0, the leading pawn is the one with the highest value */
+    static final int[] MAP_PAWNS = new int[NUM_SQUARES];
+    /** Squares below the a1-h8 diagonal to 0..27 */
+    static final int[] MAP_B1H1H7 = new int[NUM_SQUARES];
+    /** Squares of the a1-d1-d4 triangle to 0..9, the diagonal ones last */
+    static final int[] MAP_A1D1D4 = new int[NUM_SQUARES];
+    /** Legal placements of two kings to 0..461, indexed by MAP_A1D1D4 of the first one and the square of the other */
+    static final int[][] MAP_KK = new int[10][NUM_SQUARES];
+    /** BINOMIAL[k][n] ways to choose k elements out of n */
+    static final int[][] BINOMIAL = new int[MAX_PIECES - 1][NUM_SQUARES];
+    /** Index of the leading pawn square, by number of leading pawns */
+    static final int[][] LEAD_PAWN_INDEX = new int[MAX_PIECES - 1][NUM_SQUARES];
+    /** Number of placements of the leading pawns, by number of leading pawns and file a-d of the leading one */
+    static final int[][] LEAD_PAWNS_SIZE = new int[MAX_PIECES - 1][4];
+
+    static {
+        int code = 0;
+        for (int square = 0; square < NUM_SQUARES; square++)
+            if (offDiagonal(square) < 0)
+                MAP_B1H1H7[square] = code++;
+
+        code = 0;
+        for (int square = 0; square <= 27; square++)
+            if (offDiagonal(square) < 0 && file(square) <= 3)
+                MAP_A1D1D4[square] = code++;
+        for (int square = 0; square <= 27; square++)
+            if (offDiagonal(square) == 0 && file(square) <= 3)
+                MAP_A1D1D4[square] = code++;
+
+        // placements with both kings on the diagonal come last
+        code = 0;
+        for (int index = 0; index < 10; index++)
+            for (int first = 0; first <= 27; first++)
+                if (MAP_A1D1D4[first] == index && (index != 0 || first == 1) && file(first) <= 3)
+                    for (int second = 0; second < NUM_SQUARES; second++)
+                        if (!isKingPlacementIllegal(first, second) && (offDiagonal(first) != 0 || offDiagonal(second) < 0))
+                            MAP_KK[index][second] = code++;
+        for (int index = 0; index < 10; index++)
+            for (int first = 0; first <= 27; first++)
+                if (MAP_A1D1D4[first] == index && (index != 0 || first == 1) && file(first) <= 3 && offDiagonal(first) == 0)
+                    for (int second = 0; second < NUM_SQUARES; second++)
+                        if (!isKingPlacementIllegal(first, second) && offDiagonal(second) == 0)
+                            MAP_KK[index][second] = code++;
+
+        BINOMIAL[0][0] = 1;
+        for (int n = 1; n < NUM_SQUARES; n++)
+            for (int k = 0; k < BINOMIAL.length && k <= n; k++)
+                BINOMIAL[k][n] = (k > 0 ? BINOMIAL[k - 1][n - 1] : 0) + (k < n ? BINOMIAL[k][n - 1] : 0);
+
+        int availableSquares = 47;
+        for (int leadPawns = 1; leadPawns < LEAD_PAWN_INDEX.length; leadPawns++)
+            for (int file = 0; file < 4; file++) {
+                int index = 0;
+                for (int rank = 1; rank <= 6; rank++) {
+                    int square = 8 * rank + file;
+                    if (leadPawns == 1) {
+                        MAP_PAWNS[square] = availableSquares--;
+                        MAP_PAWNS[flipFile(square)] = availableSquares--;
+                    }
+                    LEAD_PAWN_INDEX[leadPawns][square] = index;
+                    index += BINOMIAL[leadPawns - 1][MAP_PAWNS[square]];
+                }
+                LEAD_PAWNS_SIZE[leadPawns][file] = index;
+            }
+    }
+
+    private TablebaseUtils() {
+        throw new RuntimeException("Cannot create object of this class");
+    }
+
+    static int file(int square) {
+        return square & 7;
+    }
+
+    static int rank(int square) {
+        return square >>> 3;
+    }
+
+    static int flipFile(int square) {
+        return square ^ 7;
+    }
+
+    static int flipRank(int square) {
+        return square ^ 56;
+    }
+
+    /**
+     * Mirrors a square on the a1-h8 diagonal, a3 becomes c1
+     */
+    static int flipDiagonal(int square) {
+        return ((square >>> 3) | (square << 3)) & 63;
+    }
+
+    /**
+     * @return 0 on the a1-h8 diagonal, negative below it, positive above it
+     */
+    static int offDiagonal(int square) {
+        return rank(square) - file(square);
+    }
+
+    /**
+     * @param coordinate - tile coordinate of the board, 0 is a8
+     * @return Syzygy square of the tile
+     */
+    static int toSquare(int coordinate) {
+        return coordinate ^ 56;
+    }
+
+    private static boolean isKingPlacementIllegal(int first, int second) {
+        return Math.abs(file(first) - file(second)) <= 1 && Math.abs(rank(first) - rank(second)) <= 1;
+    }
+}
@@ -0,0 +1,36 @@
+package chess.engine.tablebase;
+
+/**
+ * Result of a tablebase probe, from the point of view of the player to move.
+ *
+ * A cursed win is a win the fifty-move rule turns into a draw, a blessed loss a loss it saves.
+ */
+public enum Wdl {
+    LOSS,
+    BLESSED_LOSS,
+    DRAW,
+    CURSED_WIN,
+    WIN,
+    /** The board is not in the tablebase */
+    UNKNOWN;
+
+    private static final Wdl[] VALUES = values();
+
+    public boolean isKnown() {
+        return this != UNKNOWN;
+    }
+
+    /**
+     * @return true for a win or loss the fifty-move rule does not turn into a draw
+     */
+    public boolean isDecisive() {
+        return this == WIN || this == LOSS;
+    }
+
+    /**
+     * @param value - value stored in Syzygy tables, -2 for a loss up to 2 for a win
+     */
+    static Wdl ofValue(int value) {
+        return VALUES[value + 2];
+    }
+}
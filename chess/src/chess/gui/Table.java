@@ -4,6 +4,8 @@ import chess.engine.board.Board;
 import chess.engine.board.BoardUtils;
 import chess.engine.board.Move;
 import chess.engine.board.Tile;
+import chess.engine.pgn.PGNGame;
+import chess.engine.pgn.PGNReader;
 import chess.engine.pieces.Piece;
 import chess.engine.player.MoveTransition;
 
@@ -16,6 +18,7 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.image.BufferedImage;
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
 import java.util.List;
 
@@ -79,7 +82,9 @@ public class Table {
         loadMenuItem.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                System.out.println("Open up that file");
+                JFileChooser fileChooser = new JFileChooser();
+                if (fileChooser.showOpenDialog(gameFrame) == JFileChooser.APPROVE_OPTION)
+                    loadGame(fileChooser.getSelectedFile());
             }
         });
         fileMenu.add(loadMenuItem);
@@ -94,6 +99,39 @@ public class Table {
         fileMenu.add(exitMenuItem);
         return fileMenu;
     }
+
+    /**
+     * Replays the first game of a PGN file and shows the board after its last move
+     * @param pgnFile - chosen file
+     */
+    private void loadGame(File pgnFile) {
+        try (PGNReader reader = new PGNReader(pgnFile.toPath())) {
+            if (!reader.hasNext()) {
+                JOptionPane.showMessageDialog(gameFrame, "No game in " + pgnFile.getName());
+                return;
+            }
+            PGNGame game = reader.next();
+            if (!game.isValid()) {
+                JOptionPane.showMessageDialog(gameFrame, "Cannot load " + pgnFile.getName() + ": " + game.getError());
+                return;
+            }
+            chessBoard = game.getFinalBoard();
+            moveLog.clear();
+            for (Move move : game.getMoves())
+                moveLog.addMove(move);
+            sourceTile = null;
+            destinationTile = null;
+            humanMovedPiece = null;
+            gameHistoryPanel.redo(chessBoard, moveLog);
+            takenPiecesPanel.redo(moveLog);
+            boardPanel.drawBoard(chessBoard);
+            if (!game.isLegal())
+                JOptionPane.showMessageDialog(gameFrame, "The game stops before its illegal move " + game.getIllegalMove());
+        } catch (IOException | RuntimeException e) {
+            JOptionPane.showMessageDialog(gameFrame, "Cannot load " + pgnFile.getName() + ": " + e.getMessage());
+        }
+    }
+
     private JMenu createPreferencesMenu() {
         JMenu preferencesMenu = new JMenu("Preferences");
         JMenuItem flipBoardMenuItem = new JMenuItem("Flip board");
@@ -182,6 +220,22 @@ public class Table {
         }
     }
 
+    /**
+     * Tells the players when the board is drawn by repetition or by the fifty-move rule
+     */
+    private void announceDraw(final Board board) {
+        final String message = board.isThreefoldRepetition() ? "Draw by threefold repetition" :
+                               board.isFiftyMoveRule() ? "Draw by the fifty-move rule" : null;
+        if (message == null)
+            return;
+        SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+                JOptionPane.showMessageDialog(gameFrame, message);
+            }
+        });
+    }
+
     /**
      * Tile panel class
      */
@@ -215,6 +269,7 @@ public class Table {
                                 chessBoard = transition.getTransitionBoard();
                                 moveLog.addMove(move);
                                 //TODO add move to the log
+                                announceDraw(chessBoard);
                             }
                             sourceTile = null;
                             destinationTile = null;
@@ -0,0 +1,367 @@
+package chess.tools;
+
+import chess.engine.board.Board;
+import chess.engine.board.Move;
+import chess.engine.pgn.PGNGame;
+import chess.engine.pgn.PGNReader;
+import chess.engine.pieces.Piece;
+import chess.engine.player.MoveTransition;
+import chess.engine.player.Player;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Bulk validation of game files: every game is replayed move by move with Player.makeMove on a fork/join pool.
+ *
+ * Files ending in .pgn are read with PGNReader. Any other file is a compact game file with one game per line:
+ * moves in coordinate notation (e2e4, e7e8q) separated by spaces, optionally followed by the result.
+ * Every file is cut at game boundaries into chunks of about CHUNK_SIZE bytes, which are memory-mapped and
+ * replayed in parallel. The report lists the games with illegal moves or which cannot be read, the results,
+ * the final positions, the throughput and the work done by every worker thread.
+ *
+ * Usage: GameValidator [--threads n] file...
+ */
+public class GameValidator {
+    private static final long CHUNK_SIZE = 8L << 20;
+    private static final int SCAN_BUFFER_SIZE = 1 << 16;
+    private static final int MAX_REPORTED_ILLEGAL_GAMES = 20;
+    private static final int MAX_TOKEN_LENGTH = 16;
+
+    private GameValidator() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    /**
+     * Byte range of a game file holding whole games
+     */
+    private static final class Chunk {
+        private final Path path;
+        private final long start;
+        private final long end;
+
+        Chunk(Path path, long start, long end) {
+            this.path = path;
+            this.start = start;
+            this.end = end;
+        }
+
+        boolean isPgn() {
+            return this.path.toString().toLowerCase().endsWith(".pgn");
+        }
+
+        @Override
+        public String toString() {
+            return this.path + "@" + this.start;
+        }
+    }
+
+    /**
+     * Counters of replayed games, merged from the chunks up to the whole run
+     */
+    private static final class Report {
+        private long chunks;
+        private long games;
+        private long moves;
+        private long illegalGames;
+        private long checkmates;
+        private long stalemates;
+        private long busyNanos;
+        private final Map<String, Long> results = new TreeMap<>();
+        private final List<String> illegalGameDescriptions = new ArrayList<>();
+
+        void addGame(int moves, String result, Board finalBoard) {
+            this.games++;
+            this.moves += moves;
+            this.results.merge(result, 1L, Long::sum);
+            Player player = finalBoard.getCurrentPlayer();
+            if (player.isInCheckMate())
+                this.checkmates++;
+            else if (player.isInStaleMate())
+                this.stalemates++;
+        }
+
+        void addIllegalGame(String description) {
+            this.illegalGames++;
+            if (this.illegalGameDescriptions.size() < MAX_REPORTED_ILLEGAL_GAMES)
+                this.illegalGameDescriptions.add(description);
+        }
+
+        synchronized void merge(Report report) {
+            this.chunks += report.chunks;
+            this.games += report.games;
+            this.moves += report.moves;
+            this.illegalGames += report.illegalGames;
+            this.checkmates += report.checkmates;
+            this.stalemates += report.stalemates;
+            this.busyNanos += report.busyNanos;
+            for (Map.Entry<String, Long> entry : report.results.entrySet())
+                this.results.merge(entry.getKey(), entry.getValue(), Long::sum);
+            for (String description : report.illegalGameDescriptions)
+                if (this.illegalGameDescriptions.size() < MAX_REPORTED_ILLEGAL_GAMES)
+                    this.illegalGameDescriptions.add(description);
+        }
+    }
+
+    /**
+     * Replays the chunks of a range, splitting it in halves until one chunk is left
+     */
+    private static final class ValidationTask extends RecursiveTask<Report> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Chunk> chunks;
+        private final int from;
+        private final int to;
+        private final Map<String, Report> workerReports;
+
+        ValidationTask(List<Chunk> chunks, int from, int to, Map<String, Report> workerReports) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.workerReports = workerReports;
+        }
+
+        @Override
+        protected Report compute() {
+            if (this.to - this.from == 1) {
+                long start = System.nanoTime();
+                Report report = validate(this.chunks.get(this.from));
+                report.chunks = 1;
+                report.busyNanos = System.nanoTime() - start;
+                this.workerReports.computeIfAbsent(Thread.currentThread().getName(), name -> new Report()).merge(report);
+                return report;
+            }
+
+            int middle = (this.from + this.to) >>> 1;
+            ValidationTask left = new ValidationTask(this.chunks, this.from, middle, this.workerReports);
+            left.fork();
+            Report report = new ValidationTask(this.chunks, middle, this.to, this.workerReports).compute();
+            report.merge(left.join());
+            return report;
+        }
+    }
+
+    /**
+     * Replays the games of one chunk
+     */
+    private static Report validate(Chunk chunk) {
+        try (FileChannel channel = FileChannel.open(chunk.path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.end - chunk.start);
+            return chunk.isPgn() ? validatePgn(chunk, buffer) : validateCompact(chunk, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Report validatePgn(Chunk chunk, ByteBuffer buffer) {
+        Report report = new Report();
+        PGNReader reader = new PGNReader(buffer);
+        for (int gameNumber = 1; reader.hasNext(); gameNumber++) {
+            PGNGame game = reader.next();
+            if (!game.isValid()) {
+                report.addIllegalGame(chunk + " game " + gameNumber + " (" + game.getTag("White") + " - " + game.getTag("Black") +
+                                      "): cannot be read: " + game.getError());
+                continue;
+            }
+            report.addGame(game.getMoves().size(), game.getResult(), game.getFinalBoard());
+            if (!game.isLegal())
+                report.addIllegalGame(chunk + " game " + gameNumber + " (" + game.getTag("White") + " - " + game.getTag("Black") +
+                                      "): illegal move " + game.getIllegalMove() + " after " + game.getMoves().size() + " plies");
+        }
+        return report;
+    }
+
+    /**
+     * Replays lines of coordinate moves, reading the tokens from the buffer without creating strings
+     */
+    private static Report validateCompact(Chunk chunk, ByteBuffer buffer) {
+        Report report = new Report();
+        byte[] token = new byte[MAX_TOKEN_LENGTH];
+        int lineNumber = 0;
+
+        while (buffer.hasRemaining()) {
+            lineNumber++;
+            Board board = Board.createStandartdBoard();
+            int moves = 0;
+            String result = "*";
+            String illegalMove = null;
+            boolean isEmptyLine = true;
+
+            int symbol = 0;
+            while (buffer.hasRemaining() && (symbol = buffer.get()) != '\n') {
+                if (symbol <= ' ')
+                    continue;
+                isEmptyLine = false;
+                int length = 0;
+                do {
+                    if (length < MAX_TOKEN_LENGTH)
+                        token[length++] = (byte) symbol;
+                } while (buffer.hasRemaining() && (symbol = buffer.get()) > ' ');
+                if (symbol == '\n')
+                    buffer.position(buffer.position() - 1);
+
+                if (token[0] == '*' || token[0] == '0' || token[0] == '1') {
+                    result = new String(token, 0, length);
+                    continue;
+                }
+                if (illegalMove != null)
+                    continue;
+                Move move = parseCoordinateMove(board, token, length);
+                MoveTransition transition = move == Move.NULL_MOVE ? null : board.getCurrentPlayer().makeMove(move);
+                if (transition == null || !transition.getMoveStatus().isDone()) {
+                    illegalMove = new String(token, 0, length);
+                    continue;
+                }
+                board = transition.getTransitionBoard();
+                moves++;
+            }
+            if (isEmptyLine)
+                continue;
+
+            report.addGame(moves, result, board);
+            if (illegalMove != null)
+                report.addIllegalGame(chunk + " line " + lineNumber + ": illegal move " + illegalMove + " after " + moves + " plies");
+        }
+        return report;
+    }
+
+    /**
+     * @return legal move written like e2e4 or e7e8q, or Move.NULL_MOVE
+     */
+    private static Move parseCoordinateMove(Board board, byte[] token, int length) {
+        if (length != 4 && length != 5)
+            return Move.NULL_MOVE;
+        int currentCoordinate = tileOf(token[0], token[1]);
+        int destinationCoordinate = tileOf(token[2], token[3]);
+        if (currentCoordinate < 0 || destinationCoordinate < 0)
+            return Move.NULL_MOVE;
+
+        Piece.PieceType promotionType = null;
+        if (length == 5) {
+            switch (token[4]) {
+                case 'q': promotionType = Piece.PieceType.QUEEN; break;
+                case 'r': promotionType = Piece.PieceType.ROOK; break;
+                case 'b': promotionType = Piece.PieceType.BISHOP; break;
+                case 'n': promotionType = Piece.PieceType.KNIGHT; break;
+                default: return Move.NULL_MOVE;
+            }
+        }
+        return board.getCurrentPlayer().getLegalMove(currentCoordinate, destinationCoordinate, promotionType);
+    }
+
+    private static int tileOf(byte file, byte rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8')
+            return -1;
+        return ('8' - rank) * 8 + (file - 'a');
+    }
+
+    /**
+     * Cuts the file into chunks of about CHUNK_SIZE bytes, each one starting at the start of a game
+     */
+    private static List<Chunk> createChunks(Path path) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            boolean isPgn = new Chunk(path, 0, 0).isPgn();
+            for (long start = 0; start < size; ) {
+                long end = start + CHUNK_SIZE >= size ? size : findGameStart(channel, start + CHUNK_SIZE, size, isPgn);
+                chunks.add(new Chunk(path, start, end));
+                start = end;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * A compact game starts at every line. A PGN game starts at a tag line following a line which is no tag line
+     * @param position - position to search from
+     * @return start of the first game after the position, or the file size
+     */
+    private static long findGameStart(FileChannel channel, long position, long size, boolean isPgn) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        boolean isLineStart = false;
+        boolean isFirstLine = true;
+        boolean isPreviousTagLine = false;
+        boolean isTagLine = false;
+
+        for (long offset = position; offset < size; ) {
+            buffer.clear();
+            int count = channel.read(buffer, offset);
+            if (count <= 0)
+                break;
+            for (int i = 0; i < count; i++) {
+                byte symbol = buffer.get(i);
+                if (isLineStart) {
+                    if (!isPgn)
+                        return offset + i;
+                    isTagLine = symbol == '[';
+                    if (isTagLine && !isPreviousTagLine)
+                        return offset + i;
+                    isLineStart = false;
+                }
+                if (symbol == '\n') {
+                    // the line holding the position is not read from its start, so it cannot end a game
+                    isPreviousTagLine = isFirstLine || isTagLine;
+                    isFirstLine = false;
+                    isTagLine = false;
+                    isLineStart = true;
+                }
+            }
+            offset += count;
+        }
+        return size;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--threads"))
+                threads = Integer.parseInt(args[++i]);
+            else
+                chunks.addAll(createChunks(Paths.get(args[i])));
+        }
+        if (chunks.isEmpty()) {
+            System.out.println("Usage: GameValidator [--threads n] file...");
+            return;
+        }
+
+        Map<String, Report> workerReports = new ConcurrentHashMap<>();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        Report report = pool.invoke(new ValidationTask(chunks, 0, chunks.size(), workerReports));
+        long elapsed = System.nanoTime() - start;
+        pool.shutdown();
+
+        System.out.println("Games: " + report.games + " in " + chunks.size() + " chunks, " + threads + " threads");
+        System.out.println("Moves: " + report.moves);
+        System.out.println("Time: " + elapsed / 1_000_000 + " ms");
+        System.out.println("Games/sec: " + Perft.nodesPerSecond(report.games, elapsed));
+        System.out.println("Moves/sec: " + Perft.nodesPerSecond(report.moves, elapsed));
+        System.out.println("Results: " + report.results);
+        System.out.println("Final positions: " + report.checkmates + " checkmates, " + report.stalemates + " stalemates");
+        System.out.println("Games with illegal moves or read errors: " + report.illegalGames);
+        for (String description : report.illegalGameDescriptions)
+            System.out.println("  " + description);
+
+        System.out.println();
+        for (Map.Entry<String, Report> entry : new TreeMap<>(workerReports).entrySet()) {
+            Report workerReport = entry.getValue();
+            System.out.println(String.format("%-32s %6d chunks %10d games %12d moves %8d ms busy %,12d moves/sec",
+                    entry.getKey(), workerReport.chunks, workerReport.games, workerReport.moves,
+                    workerReport.busyNanos / 1_000_000, Perft.nodesPerSecond(workerReport.moves, workerReport.busyNanos)));
+        }
+    }
+}
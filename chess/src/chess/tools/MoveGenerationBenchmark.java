@@ -0,0 +1,159 @@
+package chess.tools;
+
+import chess.engine.board.Board;
+import chess.engine.board.FenUtilities;
+import chess.engine.board.Move;
+import chess.engine.board.MutableBoard;
+import chess.engine.pieces.Piece;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Throughput benchmarks of the engine hot paths, measured separately:
+ * board creation, FEN reading and writing, Move.execute(), legal move generation, Player.makeMove and perft with both move generators.
+ *
+ * Every benchmark is warmed up first so the JIT has compiled it, then measured over several fixed-time
+ * iterations. Results feed a sink, so the JIT cannot drop the measured work as dead code.
+ *
+ * Usage: MoveGenerationBenchmark [iterationMillis]
+ */
+public class MoveGenerationBenchmark {
+    private static final String[] POSITIONS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r2q1rk1/pP1p2pp/Q4n2/bbp1p3/Np6/1B3NBn/pPPP1PPP/R3K2R b KQ - 0 1"
+    };
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+
+    private static volatile long sink;
+
+    /**
+     * One benchmark operation, returns a value derived from its work
+     */
+    private interface Operation {
+        long run();
+    }
+
+    private MoveGenerationBenchmark() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static void main(String[] args) {
+        long iterationMillis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+
+        List<Board> boards = new ArrayList<>();
+        for (String fen : POSITIONS)
+            boards.add(FenUtilities.createGameFromFEN(fen));
+
+        List<Move> moves = new ArrayList<>();
+        List<Board> movesBoards = new ArrayList<>();
+        for (Board board : boards)
+            for (Move move : board.getCurrentPlayer().getLegalMoves()) {
+                moves.add(move);
+                movesBoards.add(board);
+            }
+
+        measure("Board.createStandartdBoard", iterationMillis, () -> Board.createStandartdBoard().getZobristKey());
+
+        long fenCharacters = 0;
+        for (String fen : POSITIONS)
+            fenCharacters += fen.length();
+        measure("FenUtilities.parse (chars)", iterationMillis, () -> {
+            long checksum = 0;
+            for (String fen : POSITIONS)
+                checksum += System.identityHashCode(FenUtilities.parse(fen));
+            return checksum;
+        }, fenCharacters);
+
+        StringBuilder fenBuilder = new StringBuilder();
+        measure("FenUtilities.appendFEN", iterationMillis, () -> {
+            long checksum = 0;
+            for (Board board : boards) {
+                fenBuilder.setLength(0);
+                checksum += FenUtilities.appendFEN(fenBuilder, board).length();
+            }
+            return checksum;
+        }, boards.size());
+
+        measure("Move.execute", iterationMillis, () -> {
+            long checksum = 0;
+            for (Move move : moves)
+                checksum += move.execute().getZobristKey();
+            return checksum;
+        }, moves.size());
+
+        measure("Piece.calculateLegalMoves", iterationMillis, () -> {
+            long checksum = 0;
+            for (Board board : boards) {
+                for (Piece piece : board.getWhitePieces())
+                    checksum += piece.calculateLegalMoves(board).size();
+                for (Piece piece : board.getBlackPieces())
+                    checksum += piece.calculateLegalMoves(board).size();
+            }
+            return checksum;
+        }, boards.size());
+
+        measure("Player.makeMove", iterationMillis, () -> {
+            long checksum = 0;
+            for (int i = 0; i < moves.size(); i++)
+                checksum += movesBoards.get(i).getCurrentPlayer().makeMove(moves.get(i)).getMoveStatus().ordinal();
+            return checksum;
+        }, moves.size());
+
+        measure("Perft(3) standard board", iterationMillis, () -> Perft.perft(boards.get(0), 3), 8902);
+
+        MutableBoard mutableBoard = new MutableBoard(boards.get(0));
+        int[][] moveBuffers = Perft.createMoveBuffers(3);
+        measure("Perft(3) MutableBoard", iterationMillis, () -> Perft.perft(mutableBoard, 3, moveBuffers), 8902);
+    }
+
+    private static void measure(String name, long iterationMillis, Operation operation) {
+        measure(name, iterationMillis, operation, 1);
+    }
+
+    /**
+     * @param name - benchmark name
+     * @param iterationMillis - duration of one iteration
+     * @param operation - measured operation
+     * @param unitsPerOperation - number of units (moves, boards, nodes) one operation processes
+     */
+    private static void measure(String name, long iterationMillis, Operation operation, long unitsPerOperation) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++)
+            runIteration(iterationMillis, operation);
+
+        double[] results = new double[MEASUREMENT_ITERATIONS];
+        double mean = 0;
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            results[i] = runIteration(iterationMillis, operation) * unitsPerOperation;
+            mean += results[i] / MEASUREMENT_ITERATIONS;
+        }
+
+        double variance = 0;
+        for (double result : results)
+            variance += (result - mean) * (result - mean) / MEASUREMENT_ITERATIONS;
+
+        System.out.println(String.format("%-30s %,15.0f units/sec  (+- %,.0f)", name, mean, Math.sqrt(variance)));
+    }
+
+    /**
+     * @return operations per second of one iteration
+     */
+    private static double runIteration(long iterationMillis, Operation operation) {
+        long checksum = 0;
+        long operations = 0;
+        long start = System.nanoTime();
+        long deadline = start + iterationMillis * 1_000_000L;
+        long now;
+        do {
+            checksum += operation.run();
+            operations++;
+            now = System.nanoTime();
+        } while (now < deadline);
+
+        sink += checksum;
+        return operations * 1e9 / (now - start);
+    }
+}
@@ -0,0 +1,177 @@
+package chess.tools;
+
+import chess.engine.board.Board;
+import chess.engine.board.BoardUtils;
+import chess.engine.board.FenUtilities;
+import chess.engine.board.Move;
+import chess.engine.board.MutableBoard;
+import chess.engine.player.MoveTransition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Perft: counts the leaf nodes of the legal move tree to a fixed depth.
+ *
+ * The counts of well-known positions are published, so perft is the correctness oracle for move generation,
+ * and nodes per second is its throughput baseline.
+ *
+ * Usage: Perft depth [fen]  - divide output of one position (the standard board by default)
+ *        Perft --suite depth - compares the reference positions against their published counts,
+ *                              for the Board and for the MutableBoard move generator
+ */
+public class Perft {
+    private static final String[] SUITE_FENS = {
+            "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+            "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+            "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+            "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"
+    };
+    private static final long[][] SUITE_COUNTS = {
+            {20, 400, 8902, 197281, 4865609},
+            {48, 2039, 97862, 4085603},
+            {14, 191, 2812, 43238, 674624},
+            {6, 264, 9467, 422333},
+            {44, 1486, 62379, 2103487}
+    };
+
+    private Perft() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    /**
+     * @param board - root board
+     * @param depth - number of plies
+     * @return number of legal move sequences of given length
+     */
+    public static long perft(Board board, int depth) {
+        if (depth == 0)
+            return 1;
+
+        long nodes = 0;
+        for (Move move : board.getCurrentPlayer().getLegalMoves()) {
+            MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone())
+                nodes += perft(transition.getTransitionBoard(), depth - 1);
+        }
+        return nodes;
+    }
+
+    /**
+     * Perft over int-encoded moves made and unmade on one mutable board, it allocates nothing
+     * @param board - root board, in the same position again when the method returns
+     * @param depth - number of plies
+     * @param moveBuffers - move buffers of MutableBoard.MAX_MOVES entries, at least one per ply
+     * @return number of legal move sequences of given length
+     */
+    public static long perft(MutableBoard board, int depth, int[][] moveBuffers) {
+        if (depth == 0)
+            return 1;
+
+        int[] moves = moveBuffers[depth - 1];
+        int count = board.generateLegalMoves(moves);
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            board.makeMove(moves[i]);
+            nodes += perft(board, depth - 1, moveBuffers);
+            board.unmakeMove();
+        }
+        return nodes;
+    }
+
+    /**
+     * @param depth - number of plies
+     * @return move buffers for perft of a mutable board
+     */
+    public static int[][] createMoveBuffers(int depth) {
+        return new int[depth][MutableBoard.MAX_MOVES];
+    }
+
+    /**
+     * @param board - root board
+     * @param depth - number of plies, at least one
+     * @return perft of every legal root move, keyed by the move in coordinate notation (e2e4)
+     */
+    public static Map<String, Long> divide(Board board, int depth) {
+        Map<String, Long> divide = new LinkedHashMap<>();
+        for (Move move : board.getCurrentPlayer().getLegalMoves()) {
+            MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone())
+                divide.put(BoardUtils.getPositionAtCoordinate(move.getCurrentCoordinate()) +
+                           BoardUtils.getPositionAtCoordinate(move.getDestinationCoordinate()),
+                           perft(transition.getTransitionBoard(), depth - 1));
+        }
+        return divide;
+    }
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: Perft depth [fen] | Perft --suite depth");
+            return;
+        }
+        if (args[0].equals("--suite")) {
+            runSuite(args.length > 1 ? Integer.parseInt(args[1]) : 3);
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        Board board = args.length > 1 ? FenUtilities.createGameFromFEN(joinArguments(args, 1)) : Board.createStandartdBoard();
+
+        long start = System.nanoTime();
+        long nodes = 0;
+        for (Map.Entry<String, Long> entry : divide(board, depth).entrySet()) {
+            System.out.println(entry.getKey() + ": " + entry.getValue());
+            nodes += entry.getValue();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        System.out.println();
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + elapsed / 1_000_000 + " ms");
+        System.out.println("Nodes/sec: " + nodesPerSecond(nodes, elapsed));
+    }
+
+    /**
+     * Runs the suite with both move generators: the Board one and the int-encoded MutableBoard one
+     */
+    private static void runSuite(int maxDepth) {
+        int failures = 0;
+        int[][] moveBuffers = createMoveBuffers(maxDepth);
+        for (int i = 0; i < SUITE_FENS.length; i++) {
+            Board board = FenUtilities.createGameFromFEN(SUITE_FENS[i]);
+            for (int depth = 1; depth <= Math.min(maxDepth, SUITE_COUNTS[i].length); depth++) {
+                long start = System.nanoTime();
+                long nodes = perft(board, depth);
+                long middle = System.nanoTime();
+                long mutableNodes = perft(new MutableBoard(board), depth, moveBuffers);
+                long end = System.nanoTime();
+
+                failures += report("Board", depth, nodes, SUITE_COUNTS[i][depth - 1], middle - start, SUITE_FENS[i]);
+                failures += report("MutableBoard", depth, mutableNodes, SUITE_COUNTS[i][depth - 1], end - middle, SUITE_FENS[i]);
+            }
+        }
+        System.out.println(failures == 0 ? "All positions passed" : failures + " failures");
+    }
+
+    /**
+     * @return 1 if the count is wrong, 0 otherwise
+     */
+    private static int report(String generator, int depth, long nodes, long expected, long elapsed, String fen) {
+        boolean passed = nodes == expected;
+        System.out.println((passed ? "PASS " : "FAIL ") + generator + " depth " + depth + " nodes " + nodes +
+                           " expected " + expected + " (" + nodesPerSecond(nodes, elapsed) + " nodes/sec) " + fen);
+        return passed ? 0 : 1;
+    }
+
+    static long nodesPerSecond(long nodes, long elapsedNanos) {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    private static String joinArguments(String[] args, int from) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = from; i < args.length; i++)
+            builder.append(i > from ? " " : "").append(args[i]);
+        return builder.toString();
+    }
+}
@@ -0,0 +1,53 @@
+package chess.tools;
+
+import chess.engine.board.Board;
+import chess.engine.board.FenUtilities;
+import chess.engine.board.Move;
+import chess.engine.player.MoveTransition;
+import chess.engine.tablebase.Tablebase;
+import chess.engine.tablebase.TablebaseProbe;
+
+import java.nio.file.Paths;
+
+/**
+ * Probes boards in a directory of Syzygy tablebase files.
+ *
+ * Usage: TablebaseTool directory fen - prints the result of the board and of each of its moves
+ */
+public class TablebaseTool {
+    private static final int CACHED_BLOCKS = 1024;
+
+    private TablebaseTool() {
+        throw new RuntimeException("Not instantiable!");
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: TablebaseTool directory fen");
+            return;
+        }
+
+        Tablebase tablebase = new Tablebase(Paths.get(args[0]), Tablebase.MAX_PIECES, CACHED_BLOCKS);
+        TablebaseProbe probe = new TablebaseProbe();
+        Board board = FenUtilities.createGameFromFEN(joinArguments(args, 1));
+        System.out.println(tablebase);
+        System.out.println(describe(tablebase, board, probe));
+        for (Move move : board.getCurrentPlayer().getLegalMoves()) {
+            MoveTransition transition = board.getCurrentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone())
+                System.out.println(move + ": " + describe(tablebase, transition.getTransitionBoard(), probe));
+        }
+    }
+
+    private static String describe(Tablebase tablebase, Board board, TablebaseProbe probe) {
+        tablebase.probe(board, probe);
+        return probe.toString();
+    }
+
+    private static String joinArguments(String[] args, int start) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = start; i < args.length; i++)
+            builder.append(i > start ? " " : "").append(args[i]);
+        return builder.toString();
+    }
+}